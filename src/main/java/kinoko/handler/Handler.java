@@ -6,7 +6,8 @@ import java.lang.annotation.*;
 
 /**
  * Indicates that the annotated method is a handler method for the specified {@link InHeader} operation codes. The
- * annotated handler methods will be registered at runtime using reflection.
+ * annotated handler methods are bound at startup using {@link java.lang.invoke.LambdaMetafactory}, and should be
+ * declared {@code public static void}.
  */
 @Documented
 @Target(ElementType.METHOD)
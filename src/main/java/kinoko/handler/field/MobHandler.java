@@ -109,7 +109,15 @@ public final class MobHandler {
             final boolean nextAttackPossible = (mai.actionMask & 0x1) != 0;
             final Optional<MobSkill> nextSkillResult = nextAttackPossible ? mob.getNextSkill() : Optional.empty();
             user.write(MobPacket.mobCtrlAck(mob, mobCtrlSn, nextAttackPossible, nextSkillResult.orElse(null)));
-            field.broadcastPacket(MobPacket.mobMove(mob, mai, movePath), user);
+            if (mai.isAttack || mai.isSkill || !mai.multiTargetForBall.isEmpty() || !mai.randTimeForAreaAttack.isEmpty()) {
+                // Attacks and skills are not merged, as the move packet carries the attack info
+                field.getMoveAggregator().flush(mob);
+                field.broadcastPacket(MobPacket.mobMove(mob, mai, movePath), user);
+            } else {
+                // Only merged with moves that have the same action, the merged move is sent with the last attack info
+                final long mergeKey = (long) (mai.actionMask & 0xFF) << 40 | (long) (mai.actionAndDir & 0xFF) << 32 | (mai.targetInfo & 0xFFFFFFFFL);
+                field.getMoveAggregator().submit(mob, movePath, mergeKey, (path) -> MobPacket.mobMove(mob, mai, path), (outPacket) -> field.broadcastPacket(outPacket, user));
+            }
         }
     }
 
@@ -554,8 +554,9 @@ public final class AttackHandler {
             }
         }
 
-        // Broadcast packet
-        field.broadcastPacket(UserRemote.attack(user, attack), user);
+        // Broadcast packet, after any buffered movement of the user
+        field.getMoveAggregator().flush(user);
+        field.broadcastNearbyPacket(UserRemote.attack(user, attack), user);
 
         // Process hp/mp gains
         if (hpGain > 0) {
@@ -567,7 +568,7 @@ public final class AttackHandler {
             final int skillId = SkillConstants.getMpEaterSkill(user.getJob());
             final int slv = user.getSkillLevel(skillId);
             user.write(UserLocal.effect(Effect.skillUse(skillId, slv, user.getLevel())));
-            field.broadcastPacket(UserRemote.effect(user, Effect.skillUse(skillId, slv, user.getLevel())), user);
+            field.broadcastNearbyPacket(UserRemote.effect(user, Effect.skillUse(skillId, slv, user.getLevel())), user);
         }
         if (attack.exJablin != 0) {
             user.getCalcDamage().setNextAttackCritical(true);
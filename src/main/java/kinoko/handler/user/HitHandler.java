@@ -189,7 +189,7 @@ public final class HitHandler {
         if (hitInfo.mpDamage > 0) {
             user.addMp(-hitInfo.mpDamage);
         }
-        user.getField().broadcastPacket(UserRemote.hit(user, hitInfo), user);
+        user.getField().broadcastNearbyPacket(UserRemote.hit(user, hitInfo), user);
 
         // Process on hit effects
         handleGuardian(user, hitInfo);
@@ -448,7 +448,7 @@ public final class HitHandler {
             attackInfo.damage[0] = (int) Math.clamp(damage, 1.0, GameConstants.DAMAGE_MAX);
             attack.getAttackInfo().add(attackInfo);
             // Broadcast packet and process damage
-            user.getField().broadcastPacket(SummonedPacket.summonedAttack(user, summoned, attack));
+            user.getField().broadcastNearbyPacket(SummonedPacket.summonedAttack(user, summoned, attack), user, true);
             mob.damage(user, attackInfo.damage[0], 0);
         }
     }
@@ -510,7 +510,7 @@ public final class HitHandler {
                 attackInfo.damage[0] = Math.min((int) Math.clamp(damage, 1.0, GameConstants.DAMAGE_MAX), mob.getMaxHp() / 2);
                 attack.getAttackInfo().add(attackInfo);
                 // Broadcast packet and process damage
-                user.getField().broadcastPacket(SummonedPacket.summonedAttack(member, summoned, attack));
+                user.getField().broadcastNearbyPacket(SummonedPacket.summonedAttack(member, summoned, attack), member, true);
                 mob.damage(user, attackInfo.damage[0], 0);
             }
         });
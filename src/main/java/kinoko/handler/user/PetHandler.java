@@ -94,7 +94,7 @@ public final class PetHandler {
                     }
                 }
                 // Update client
-                user.getField().broadcastPacket(PetPacket.petActivated(user, pet));
+                user.getField().broadcastNearbyPacket(PetPacket.petActivated(user, pet), user, true);
                 user.write(PetPacket.petLoadExceptionList(user, pet.getPetIndex(), pet.getItemSn(), user.getConfigManager().getPetExceptionList()));
             } else {
                 // Deactivate pet and update client
@@ -104,7 +104,7 @@ public final class PetHandler {
                     user.dispose();
                     return;
                 }
-                user.getField().broadcastPacket(PetPacket.petDeactivated(user, petIndex, 0));
+                user.getField().broadcastNearbyPacket(PetPacket.petDeactivated(user, petIndex, 0), user, true);
             }
         }
     }
@@ -125,7 +125,7 @@ public final class PetHandler {
             return;
         }
         movePath.applyTo(pet);
-        user.getField().broadcastPacket(PetPacket.petMove(user, petIndex, movePath), user);
+        user.getField().broadcastNearbyPacket(PetPacket.petMove(user, petIndex, movePath), user);
     }
 
     @Handler(InHeader.PetAction)
@@ -146,7 +146,7 @@ public final class PetHandler {
             log.error("Received PetAction for invalid pet index : {}", petIndex);
             return;
         }
-        user.getField().broadcastPacket(PetPacket.petAction(user, petIndex, type, action, chat), user);
+        user.getField().broadcastNearbyPacket(PetPacket.petAction(user, petIndex, type, action, chat), user);
     }
 
     @Handler(InHeader.PetInteractionRequest)
@@ -216,12 +216,12 @@ public final class PetHandler {
                 user.write(WvsContext.inventoryOperation(updateResult.get(), false));
                 if (levelUp) {
                     user.write(UserLocal.effect(Effect.petLevelUp(petIndex)));
-                    user.getField().broadcastPacket(UserRemote.effect(user, Effect.petLevelUp(petIndex)), user);
+                    user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.petLevelUp(petIndex)), user);
                 }
             }
 
             // Broadcast pet action
-            user.getField().broadcastPacket(PetPacket.petActionInteract(user, petIndex, action, success, false));
+            user.getField().broadcastNearbyPacket(PetPacket.petActionInteract(user, petIndex, action, success, false), user, true);
         }
     }
 
@@ -161,7 +161,7 @@ public final class SkillHandler {
             final BitFlag<CharacterTemporaryStat> flag = BitFlag.from(resetStats, CharacterTemporaryStat.FLAG_SIZE);
             if (!flag.isEmpty()) {
                 user.write(WvsContext.temporaryStatReset(flag));
-                user.getField().broadcastPacket(UserRemote.temporaryStatReset(user, flag), user);
+                user.getField().broadcastNearbyPacket(UserRemote.temporaryStatReset(user, flag), user);
             }
             // Additional handling for CTS
             if (resetStats.contains(CharacterTemporaryStat.Beholder)) {
@@ -207,7 +207,7 @@ public final class SkillHandler {
                 }
             }
         }
-        user.getField().broadcastPacket(UserRemote.skillPrepare(user, skillId, slv, actionAndDir, attackSpeed), user);
+        user.getField().broadcastNearbyPacket(UserRemote.skillPrepare(user, skillId, slv, actionAndDir, attackSpeed), user);
     }
 
     @Handler(InHeader.UserMovingShootAttackPrepare)
@@ -220,7 +220,7 @@ public final class SkillHandler {
             log.error("Received UserMovingShootAttackPrepare for skill {}, but skill level is 0", skillId);
             return;
         }
-        user.getField().broadcastPacket(UserRemote.movingShootAttackPrepare(user, skillId, slv, actionAndDir, attackSpeed), user);
+        user.getField().broadcastNearbyPacket(UserRemote.movingShootAttackPrepare(user, skillId, slv, actionAndDir, attackSpeed), user);
     }
 
     @Handler(InHeader.UserEffectLocal)
@@ -242,7 +242,7 @@ public final class SkillHandler {
                 }
             }
         }
-        user.getField().broadcastPacket(UserRemote.effect(user, effect), user);
+        user.getField().broadcastNearbyPacket(UserRemote.effect(user, effect), user);
     }
 
     @Handler(InHeader.UserCalcDamageStatSetRequest)
@@ -271,7 +271,7 @@ public final class SkillHandler {
             if (skill.skillId != Thief.MONSTER_BOMB) {
                 handleSkill(locked, skill);
             }
-            user.getField().broadcastPacket(UserRemote.throwGrenade(user, skill), user);
+            user.getField().broadcastNearbyPacket(UserRemote.throwGrenade(user, skill), user);
         }
     }
 
@@ -373,12 +373,12 @@ public final class SkillHandler {
 
         // Skill effects and party handling
         final Field field = user.getField();
-        field.broadcastPacket(UserRemote.effect(user, Effect.skillUse(skill, user.getLevel())), user);
+        field.broadcastNearbyPacket(UserRemote.effect(user, Effect.skillUse(skill, user.getLevel())), user);
         skill.forEachAffectedMember(user, field, (member) -> {
             try (var lockedMember = member.acquire()) {
                 SkillProcessor.processSkill(lockedMember, skill);
                 member.write(UserLocal.effect(Effect.skillAffected(skill.skillId, skill.slv)));
-                field.broadcastPacket(UserRemote.effect(member, Effect.skillAffected(skill.skillId, skill.slv)), member);
+                field.broadcastNearbyPacket(UserRemote.effect(member, Effect.skillAffected(skill.skillId, skill.slv)), member);
             }
         });
     }
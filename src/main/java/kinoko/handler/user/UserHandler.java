@@ -96,7 +96,8 @@ public final class UserHandler {
         }
         final MovePath movePath = MovePath.decode(inPacket);
         movePath.applyTo(user);
-        field.broadcastPacket(UserRemote.move(user, movePath), user);
+        field.getMoveAggregator().submit(user, movePath, (path) -> UserRemote.move(user, path), (outPacket) -> field.broadcastNearbyPacket(outPacket, user));
+        field.getUserPool().updateUserView(user);
     }
 
     @Handler(InHeader.UserSitRequest)
@@ -117,7 +118,7 @@ public final class UserHandler {
             return;
         }
         user.setPortableChairId(itemId);
-        user.getField().broadcastPacket(UserRemote.setActivePortableChair(user, itemId), user); // self-cast not required
+        user.getField().broadcastNearbyPacket(UserRemote.setActivePortableChair(user, itemId), user); // self-cast not required
         user.dispose();
     }
 
@@ -130,13 +131,13 @@ public final class UserHandler {
             CommandProcessor.tryProcessCommand(user, text);
             return;
         }
-        user.getField().broadcastPacket(UserPacket.userChat(user, ChatType.NORMAL, text, onlyBalloon));
+        user.getField().broadcastNearbyPacket(UserPacket.userChat(user, ChatType.NORMAL, text, onlyBalloon), user, true);
     }
 
     @Handler(InHeader.UserADBoardClose)
     public static void handleUserAdBoardClose(User user, InPacket inPacket) {
         user.setAdBoard(null);
-        user.getField().broadcastPacket(UserPacket.userAdBoard(user, null));
+        user.getField().broadcastNearbyPacket(UserPacket.userAdBoard(user, null), user, true);
     }
 
     @Handler(InHeader.UserEmotion)
@@ -144,7 +145,7 @@ public final class UserHandler {
         final int emotion = inPacket.decodeInt(); // nEmotion
         final int duration = inPacket.decodeInt(); // nDuration
         final boolean isByItemOption = inPacket.decodeBoolean(); // bByItemOption
-        user.getField().broadcastPacket(UserRemote.emotion(user, emotion, duration, isByItemOption), user);
+        user.getField().broadcastNearbyPacket(UserRemote.emotion(user, emotion, duration, isByItemOption), user);
     }
 
     @Handler(InHeader.UserActivateEffectItem)
@@ -154,7 +155,7 @@ public final class UserHandler {
             log.error("Received UserActivateEffectItem with invalid effect item : {}", itemId);
         }
         user.setEffectItemId(itemId);
-        user.getField().broadcastPacket(UserRemote.setActiveEffectItem(user, itemId), user); // self-cast not required
+        user.getField().broadcastNearbyPacket(UserRemote.setActiveEffectItem(user, itemId), user); // self-cast not required
     }
 
     @Handler(InHeader.UserUpgradeTombEffect)
@@ -162,7 +163,7 @@ public final class UserHandler {
         final int itemId = inPacket.decodeInt(); // 5510000 (Wheel of Destiny)
         final int x = inPacket.decodeInt(); // ptRevive.x
         final int y = inPacket.decodeInt(); // ptRevive.y
-        user.getField().broadcastPacket(UserRemote.showUpgradeTombEffect(user, itemId, x, y), user);
+        user.getField().broadcastNearbyPacket(UserRemote.showUpgradeTombEffect(user, itemId, x, y), user);
     }
 
 
@@ -495,7 +496,7 @@ public final class UserHandler {
             if (inventoryType == InventoryType.EQUIP) {
                 user.getCharacterData().getCoupleRecord().reset(im.getEquipped(), im.getEquipInventory());
                 user.validateStat();
-                user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+                user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
             }
         }
     }
@@ -839,7 +840,7 @@ public final class UserHandler {
                 }
                 // Quest complete effect
                 user.write(UserLocal.effect(Effect.questComplete()));
-                user.getField().broadcastPacket(UserRemote.effect(user, Effect.questComplete()), user);
+                user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.questComplete()), user);
             }
             case ResignQuest -> {
                 try (var locked = user.acquire()) {
@@ -1043,7 +1044,7 @@ public final class UserHandler {
                     user.write(WvsContext.statChanged(Stat.MONEY, im.getMoney(), true));
                     user.write(MakerPacket.normal(success, rewardItemId, rewardItemCount, lostItems, totalCost));
                     user.write(UserLocal.effect(Effect.itemMaker(success ? MakerResult.SUCCESS : MakerResult.DESTROYED)));
-                    user.getField().broadcastPacket(UserRemote.effect(user, Effect.itemMaker(success ? MakerResult.SUCCESS : MakerResult.DESTROYED)));
+                    user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.itemMaker(success ? MakerResult.SUCCESS : MakerResult.DESTROYED)), user, true);
                 }
             }
             case MONSTER_CRYSTAL -> {
@@ -1080,7 +1081,7 @@ public final class UserHandler {
                     user.write(WvsContext.inventoryOperation(addItemResult.get(), true));
                     user.write(MakerPacket.monsterCrystal(monsterCrystalId, itemId));
                     user.write(UserLocal.effect(Effect.itemMaker(MakerResult.SUCCESS)));
-                    user.getField().broadcastPacket(UserRemote.effect(user, Effect.itemMaker(MakerResult.SUCCESS)));
+                    user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.itemMaker(MakerResult.SUCCESS)), user, true);
                 }
             }
             case EQUIP_DISASSEMBLE -> {
@@ -1155,7 +1156,7 @@ public final class UserHandler {
                     user.write(WvsContext.statChanged(Stat.MONEY, im.getMoney(), true));
                     user.write(MakerPacket.equipDisassemble(itemId, rewardItems, totalCost));
                     user.write(UserLocal.effect(Effect.itemMaker(MakerResult.SUCCESS)));
-                    user.getField().broadcastPacket(UserRemote.effect(user, Effect.itemMaker(MakerResult.SUCCESS)));
+                    user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.itemMaker(MakerResult.SUCCESS)), user, true);
                 }
             }
             case null -> {
@@ -1773,7 +1774,7 @@ public final class UserHandler {
     @Handler(InHeader.DragonMove)
     public static void handleDragonMove(User user, InPacket inPacket) {
         final MovePath movePath = MovePath.decode(inPacket);
-        user.getField().broadcastPacket(DragonPacket.dragonMove(user, movePath), user);
+        user.getField().broadcastNearbyPacket(DragonPacket.dragonMove(user, movePath), user);
     }
 
     @Handler(InHeader.QuickslotKeyMappedModified)
@@ -208,7 +208,7 @@ public final class CashItemHandler extends ItemHandler {
                 case ADBOARD -> {
                     final String message = inPacket.decodeString();
                     user.setAdBoard(message);
-                    user.getField().broadcastPacket(UserPacket.userAdBoard(user, message));
+                    user.getField().broadcastNearbyPacket(UserPacket.userAdBoard(user, message), user, true);
                     user.dispose();
                 }
                 case CONSUMEEFFECTITEM -> {
@@ -222,7 +222,7 @@ public final class CashItemHandler extends ItemHandler {
                     user.write(WvsContext.inventoryOperation(removeItemResult.get(), true));
                     // Show effect
                     user.write(UserLocal.effect(Effect.consumeEffect(item.getItemId())));
-                    user.getField().broadcastPacket(UserRemote.effect(user, Effect.consumeEffect(item.getItemId())), user);
+                    user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.consumeEffect(item.getItemId())), user);
                     // Create affected area
                     final Instant expireTime = Instant.now().plus(itemInfo.getInfo(ItemInfoType.time, 60), ChronoUnit.SECONDS);
                     user.getField().getAffectedAreaPool().addAffectedArea(AffectedArea.buff(user, item.getItemId(), itemInfo.getRect(), expireTime));
@@ -461,7 +461,7 @@ public final class CashItemHandler extends ItemHandler {
                         throw new IllegalStateException("Could not update pet item");
                     }
                     user.write(WvsContext.inventoryOperation(updateResult.get(), true));
-                    user.getField().broadcastPacket(PetPacket.petNameChanged(user, pet.getPetIndex(), petName));
+                    user.getField().broadcastNearbyPacket(PetPacket.petNameChanged(user, pet.getPetIndex(), petName), user, true);
                 }
                 case SELECTNPC -> {
                     final int npcId = itemInfo.getInfo(ItemInfoType.npc);
@@ -595,7 +595,7 @@ public final class CashItemHandler extends ItemHandler {
                     // Change avatar
                     user.getCharacterStat().setFace(newFace);
                     user.write(WvsContext.statChanged(Stat.FACE, user.getCharacterStat().getFace(), true));
-                    user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+                    user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
                 }
                 case null -> {
                     log.error("Unknown cash item type for item ID : {}", item.getItemId());
@@ -249,11 +249,11 @@ public abstract class ItemHandler {
             user.write(WvsContext.inventoryOperation(updateResult.get(), false));
             if (levelUp) {
                 user.write(UserLocal.effect(Effect.petLevelUp(petIndex)));
-                user.getField().broadcastPacket(UserRemote.effect(user, Effect.petLevelUp(petIndex)), user);
+                user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.petLevelUp(petIndex)), user);
             }
 
             // Broadcast pet action
-            user.getField().broadcastPacket(PetPacket.petActionFeed(user, petIndex, success, false));
+            user.getField().broadcastNearbyPacket(PetPacket.petActionFeed(user, petIndex, success, false), user, true);
         }
     }
 
@@ -168,7 +168,7 @@ public final class UpgradeItemHandler extends ItemHandler {
                         throw new IllegalStateException(String.format("Could not destroy equip item %d in position %d", equipItem.getItemId(), equipItemPosition));
                     }
                     user.write(WvsContext.inventoryOperation(destroyItemResult.get(), true));
-                    user.getField().broadcastPacket(UserPacket.userItemUpgradeEffect(user, false, true, enchantSkill, whiteScroll && requireUpgradeCount));
+                    user.getField().broadcastNearbyPacket(UserPacket.userItemUpgradeEffect(user, false, true, enchantSkill, whiteScroll && requireUpgradeCount), user, true);
                     return;
                 }
             }
@@ -182,7 +182,7 @@ public final class UpgradeItemHandler extends ItemHandler {
                 throw new IllegalStateException(String.format("Could not update equip item %d in position %d", equipItem.getItemId(), equipItemPosition));
             }
             user.write(WvsContext.inventoryOperation(updateItemResult.get(), true));
-            user.getField().broadcastPacket(UserPacket.userItemUpgradeEffect(user, success, false, enchantSkill, whiteScroll && requireUpgradeCount));
+            user.getField().broadcastNearbyPacket(UserPacket.userItemUpgradeEffect(user, success, false, enchantSkill, whiteScroll && requireUpgradeCount), user, true);
         }
     }
 
@@ -244,7 +244,7 @@ public final class UpgradeItemHandler extends ItemHandler {
                     throw new IllegalStateException(String.format("Could not update equip item %d in position %d", equipItem.getItemId(), equipItemPosition));
                 }
                 user.write(WvsContext.inventoryOperation(updateItemResult.get(), true));
-                user.getField().broadcastPacket(UserPacket.userItemHyperUpgradeEffect(user, true, false, enchantSkill));
+                user.getField().broadcastNearbyPacket(UserPacket.userItemHyperUpgradeEffect(user, true, false, enchantSkill), user, true);
             } else {
                 // Destroy item
                 final Optional<InventoryOperation> destroyItemResult = im.removeItem(equipItemPosition, equipItem);
@@ -252,7 +252,7 @@ public final class UpgradeItemHandler extends ItemHandler {
                     throw new IllegalStateException(String.format("Could not destroy equip item %d in position %d", equipItem.getItemId(), equipItemPosition));
                 }
                 user.write(WvsContext.inventoryOperation(destroyItemResult.get(), true));
-                user.getField().broadcastPacket(UserPacket.userItemHyperUpgradeEffect(user, false, true, enchantSkill));
+                user.getField().broadcastNearbyPacket(UserPacket.userItemHyperUpgradeEffect(user, false, true, enchantSkill), user, true);
             }
         }
     }
@@ -336,7 +336,7 @@ public final class UpgradeItemHandler extends ItemHandler {
                     throw new IllegalStateException(String.format("Could not update equip item %d in position %d", equipItem.getItemId(), equipItemPosition));
                 }
                 user.write(WvsContext.inventoryOperation(updateItemResult.get(), true));
-                user.getField().broadcastPacket(UserPacket.userItemOptionUpgradeEffect(user, true, false, enchantSkill));
+                user.getField().broadcastNearbyPacket(UserPacket.userItemOptionUpgradeEffect(user, true, false, enchantSkill), user, true);
             } else {
                 // Destroy item
                 final Optional<InventoryOperation> destroyItemResult = im.removeItem(equipItemPosition, equipItem);
@@ -344,7 +344,7 @@ public final class UpgradeItemHandler extends ItemHandler {
                     throw new IllegalStateException(String.format("Could not destroy equip item %d in position %d", equipItem.getItemId(), equipItemPosition));
                 }
                 user.write(WvsContext.inventoryOperation(destroyItemResult.get(), true));
-                user.getField().broadcastPacket(UserPacket.userItemOptionUpgradeEffect(user, false, true, enchantSkill));
+                user.getField().broadcastNearbyPacket(UserPacket.userItemOptionUpgradeEffect(user, false, true, enchantSkill), user, true);
             }
         }
     }
@@ -84,7 +84,7 @@ public final class QuestPetAct implements QuestAct {
         user.write(WvsContext.inventoryOperation(updateResult.get(), false));
         if (levelUp) {
             user.write(UserLocal.effect(Effect.petLevelUp(pet.getPetIndex())));
-            user.getField().broadcastPacket(UserRemote.effect(user, Effect.petLevelUp(0)), user);
+            user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.petLevelUp(0)), user);
         }
         return true;
     }
@@ -306,7 +306,7 @@ public final class ScriptManagerImpl implements ScriptManager {
         statMap.put(Stat.SP, JobConstants.isExtendSpJob(jobId) ? cs.getSp() : (short) cs.getSp().getNonExtendSp());
         statMap.put(Stat.JOB, cs.getJob());
         user.write(WvsContext.statChanged(statMap, false));
-        user.getField().broadcastPacket(UserRemote.effect(user, Effect.jobChanged()), user);
+        user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.jobChanged()), user);
         // Update skills
         final SkillManager sm = user.getSkillManager();
         final List<SkillRecord> skillRecords = new ArrayList<>();
@@ -335,7 +335,7 @@ public final class ScriptManagerImpl implements ScriptManager {
         if (JobConstants.isDragonJob(jobId)) {
             final Dragon dragon = new Dragon(jobId);
             user.setDragon(dragon);
-            user.getField().broadcastPacket(DragonPacket.dragonEnterField(user, dragon));
+            user.getField().broadcastNearbyPacket(DragonPacket.dragonEnterField(user, dragon), user, true);
         } else if (JobConstants.isWildHunterJob(jobId)) {
             user.write(WvsContext.wildHunterInfo(user.getWildHunterInfo()));
         }
@@ -347,21 +347,21 @@ public final class ScriptManagerImpl implements ScriptManager {
         if (look >= 0 && look <= GameConstants.SKIN_MAX) {
             user.getCharacterStat().setSkin((byte) look);
             user.write(WvsContext.statChanged(Stat.SKIN, user.getCharacterStat().getSkin(), false));
-            user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+            user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
         } else if (look >= GameConstants.FACE_MIN && look <= GameConstants.FACE_MAX) {
             if (StringProvider.getItemName(look) == null) {
                 throw new ScriptError("Tried to set face with invalid ID : %d", look);
             }
             user.getCharacterStat().setFace(look);
             user.write(WvsContext.statChanged(Stat.FACE, user.getCharacterStat().getFace(), false));
-            user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+            user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
         } else if (look >= GameConstants.HAIR_MIN && look <= GameConstants.HAIR_MAX) {
             if (StringProvider.getItemName(look) == null) {
                 throw new ScriptError("Tried to set hair with invalid ID : %d", look);
             }
             user.getCharacterStat().setHair(look);
             user.write(WvsContext.statChanged(Stat.HAIR, user.getCharacterStat().getHair(), false));
-            user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+            user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
         } else {
             throw new ScriptError("Tried to set avatar with invalid ID : %d", look);
         }
@@ -549,7 +549,7 @@ public final class ScriptManagerImpl implements ScriptManager {
         user.validateStat();
         // Quest complete effect
         user.write(UserLocal.effect(Effect.questComplete()));
-        user.getField().broadcastPacket(UserRemote.effect(user, Effect.questComplete()), user);
+        user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.questComplete()), user);
     }
 
     @Override
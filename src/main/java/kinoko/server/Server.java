@@ -5,9 +5,12 @@ import kinoko.provider.*;
 import kinoko.script.common.ScriptDispatcher;
 import kinoko.server.cashshop.CashShop;
 import kinoko.server.command.CommandProcessor;
+import kinoko.server.metrics.MetricsServer;
+import kinoko.server.netty.PacketCapture;
 import kinoko.server.node.CentralServerNode;
 import kinoko.server.node.ChannelServerNode;
 import kinoko.server.node.LoginServerNode;
+import kinoko.server.node.Node;
 import kinoko.server.node.ServerExecutor;
 import kinoko.server.rank.RankManager;
 import kinoko.util.crypto.MapleCrypto;
@@ -47,6 +50,7 @@ public final class Server {
         MapleCrypto.initialize();
         ServerExecutor.initialize();
         CommandProcessor.initialize();
+        MetricsServer.initialize();
 
         // Initialize database
         start = Instant.now();
@@ -111,6 +115,9 @@ public final class Server {
         ScriptDispatcher.shutdown();
         RankManager.shutdown();
         ServerExecutor.shutdown();
+        Node.shutdownEventLoops();
+        PacketCapture.shutdown();
+        MetricsServer.shutdown();
         DatabaseManager.shutdown();
         LogManager.shutdown();
     }
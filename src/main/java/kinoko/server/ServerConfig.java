@@ -7,9 +7,38 @@ public final class ServerConfig {
     public static final int WORLD_ID = Util.getEnv("WORLD_ID", 0);
     public static final String WORLD_NAME = Util.getEnv("WORLD_NAME", "Kinoko");
     public static final int CHANNELS_PER_WORLD = Util.getEnv("CHANNEL_COUNT", 5);
-    public static final int CENTRAL_REQUEST_TTL = 5;
+    public static final int CENTRAL_REQUEST_TTL = 5; // seconds
+    public static final boolean CENTRAL_LOCAL_TRANSPORT = Util.getEnv("CENTRAL_LOCAL_TRANSPORT", true); // in-process central connections, disable for split deployments
+    public static final int CENTRAL_FLUSH_WINDOW = Util.getEnv("CENTRAL_FLUSH_WINDOW", 500); // microseconds, 0 : flush every packet
     public static final int FIELD_TICK_INTERVAL = 100; // 100 ms tick
+    public static final int FIELD_TICK_INTERVAL_MAX = Util.getEnv("FIELD_TICK_INTERVAL_MAX", 1000); // milliseconds between updates of quiet fields, FIELD_TICK_INTERVAL : fixed rate
+    public static final int FIELD_REBALANCE_INTERVAL = Util.getEnv("FIELD_REBALANCE_INTERVAL", 10); // seconds, 0 : fields stay on their first executor
+    public static final int FIELD_HIBERNATE_DELAY = Util.getEnv("FIELD_HIBERNATE_DELAY", 60); // seconds without users before a field stops updating, 0 : never
+    public static final int FIELD_EVICT_DELAY = Util.getEnv("FIELD_EVICT_DELAY", 1800); // seconds without users before a field is unloaded, 0 : only on memory pressure
+    public static final int FIELD_EVICT_HEAP_USAGE = Util.getEnv("FIELD_EVICT_HEAP_USAGE", 80); // percent of max heap, idle fields are unloaded above this, 0 : disabled
+    public static final int FIELD_MOVE_COALESCE_INTERVAL = Util.getEnv("FIELD_MOVE_COALESCE_INTERVAL", 0); // milliseconds, 0 : broadcast every move
+    public static final boolean FIELD_INTEREST_MANAGEMENT = Util.getEnv("FIELD_INTEREST_MANAGEMENT", false); // send positional packets and packets keyed by a character ID (chat, effects, avatar) to nearby users only
+    public static final int FIELD_VIEW_WIDTH = Util.getEnv("FIELD_VIEW_WIDTH", 1600);
+    public static final int FIELD_VIEW_HEIGHT = Util.getEnv("FIELD_VIEW_HEIGHT", 1200);
+    public static final int FIELD_VIEW_MARGIN = Util.getEnv("FIELD_VIEW_MARGIN", 200); // extra distance before a user leaves view
     public static final int SHUTDOWN_TIMEOUT = 30;
+    public static final int NETTY_BOSS_THREADS = Util.getEnv("NETTY_BOSS_THREADS", 1); // shared by all nodes
+    public static final int NETTY_WORKER_THREADS = Util.getEnv("NETTY_WORKER_THREADS", 0); // 0 : netty default (2 * cores)
+    public static final boolean NETTY_EPOLL = Util.getEnv("NETTY_EPOLL", false); // native transport, linux only
+    public static final boolean NETTY_EPOLL_EDGE_TRIGGERED = Util.getEnv("NETTY_EPOLL_EDGE_TRIGGERED", true);
+    public static final boolean NETTY_SO_REUSEPORT = Util.getEnv("NETTY_SO_REUSEPORT", false);
+    public static final boolean FLOOD_CONTROL = Util.getEnv("FLOOD_CONTROL", true); // per-client inbound packet limits
+    public static final int FLOOD_CONTROL_RATE = Util.getEnv("FLOOD_CONTROL_RATE", 200); // packets per second per client
+    public static final int FLOOD_CONTROL_BURST = Util.getEnv("FLOOD_CONTROL_BURST", 400);
+    public static final String FLOOD_CONTROL_POLICY = Util.getEnv("FLOOD_CONTROL_POLICY", "DELAY"); // DROP | DELAY | DISCONNECT
+    public static final String FLOOD_CONTROL_LIMITS = Util.getEnv("FLOOD_CONTROL_LIMITS", ""); // header:rate:burst:policy overrides separated by commas, rate 0 : no header limit
+    public static final int FLOOD_CONTROL_QUEUE = Util.getEnv("FLOOD_CONTROL_QUEUE", 64); // delayed packets before disconnect
+    public static final boolean PACKET_CAPTURE = Util.getEnv("PACKET_CAPTURE", false); // record inbound channel packets for replay
+    public static final String PACKET_CAPTURE_DIRECTORY = Util.getEnv("PACKET_CAPTURE_DIRECTORY", "capture");
+    public static final int CLIENT_WRITE_BUFFER_LOW = Util.getEnv("CLIENT_WRITE_BUFFER_LOW", 64 * 1024); // bytes, writable again below this
+    public static final int CLIENT_WRITE_BUFFER_HIGH = Util.getEnv("CLIENT_WRITE_BUFFER_HIGH", 256 * 1024); // bytes, low priority packets are held above this
+    public static final int CLIENT_BACKPRESSURE_TIMEOUT = Util.getEnv("CLIENT_BACKPRESSURE_TIMEOUT", 30); // seconds unwritable before disconnect
+    public static final boolean COALESCE_CLIENT_WRITES = Util.getEnv("COALESCE_CLIENT_WRITES", false); // flush client writes once per executor task
 
     public static final boolean AUTO_CREATE_ACCOUNT = Util.getEnv("AUTO_CREATE_ACCOUNT", true);
     public static final boolean REQUIRE_SECONDARY_PASSWORD = Util.getEnv("REQUIRE_SECONDARY_PASSWORD", true);
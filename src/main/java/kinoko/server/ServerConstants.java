@@ -14,6 +14,9 @@ public final class ServerConstants {
     public static final int LOGIN_PORT = 8484;
     public static final int CHANNEL_PORT = 8585;
 
+    public static final String METRICS_HOST = Util.getEnv("METRICS_HOST", "127.0.0.1");
+    public static final int METRICS_PORT = Util.getEnv("METRICS_PORT", 9095); // 0 : disable HTTP endpoint
+
     public static final String DATABASE_HOST = Util.getEnv("DATABASE_HOST", "127.0.0.1");
     public static final int DATABASE_PORT = 9042;
 }
@@ -660,7 +660,7 @@ public final class AdminCommands {
         if (look >= 0 && look <= GameConstants.SKIN_MAX) {
             user.getCharacterStat().setSkin((byte) look);
             user.write(WvsContext.statChanged(Stat.SKIN, user.getCharacterStat().getSkin(), false));
-            user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+            user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
         } else if (look >= GameConstants.FACE_MIN && look <= GameConstants.FACE_MAX) {
             if (StringProvider.getItemName(look) == null) {
                 user.write(MessagePacket.system("Tried to change face with invalid ID : %d", look));
@@ -668,7 +668,7 @@ public final class AdminCommands {
             }
             user.getCharacterStat().setFace(look);
             user.write(WvsContext.statChanged(Stat.FACE, user.getCharacterStat().getFace(), false));
-            user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+            user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
         } else if (look >= GameConstants.HAIR_MIN && look <= GameConstants.HAIR_MAX) {
             if (StringProvider.getItemName(look) == null) {
                 user.write(MessagePacket.system("Tried to change hair with invalid ID : %d", look));
@@ -676,7 +676,7 @@ public final class AdminCommands {
             }
             user.getCharacterStat().setHair(look);
             user.write(WvsContext.statChanged(Stat.HAIR, user.getCharacterStat().getHair(), false));
-            user.getField().broadcastPacket(UserRemote.avatarModified(user), user);
+            user.getField().broadcastNearbyPacket(UserRemote.avatarModified(user), user);
         } else {
             user.write(MessagePacket.system("Tried to change avatar with invalid ID : %d", look));
         }
@@ -727,7 +727,7 @@ public final class AdminCommands {
             // Set job
             user.getCharacterStat().setJob(job.getJobId());
             user.write(WvsContext.statChanged(Stat.JOB, job.getJobId(), false));
-            user.getField().broadcastPacket(UserRemote.effect(user, Effect.jobChanged()), user);
+            user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.jobChanged()), user);
             // Update skills
             final SkillManager sm = user.getSkillManager();
             final List<SkillRecord> skillRecords = new ArrayList<>();
@@ -753,7 +753,7 @@ public final class AdminCommands {
             if (JobConstants.isDragonJob(jobId)) {
                 final Dragon dragon = new Dragon(user.getJob());
                 user.setDragon(dragon);
-                user.getField().broadcastPacket(DragonPacket.dragonEnterField(user, dragon));
+                user.getField().broadcastNearbyPacket(DragonPacket.dragonEnterField(user, dragon), user, true);
             } else {
                 user.setDragon(null);
             }
@@ -800,7 +800,7 @@ public final class AdminCommands {
             final BitFlag<CharacterTemporaryStat> flag = BitFlag.from(Set.of(CharacterTemporaryStat.Morph), CharacterTemporaryStat.FLAG_SIZE);
             ss.getTemporaryStats().put(CharacterTemporaryStat.Morph, TemporaryStatOption.of(morphId, -5300000, 0));
             user.write(WvsContext.temporaryStatSet(ss, flag));
-            user.getField().broadcastPacket(UserRemote.temporaryStatSet(user, ss, flag));
+            user.getField().broadcastNearbyPacket(UserRemote.temporaryStatSet(user, ss, flag), user, true);
         }
     }
 
@@ -817,7 +817,7 @@ public final class AdminCommands {
             final BitFlag<CharacterTemporaryStat> flag = BitFlag.from(Set.of(CharacterTemporaryStat.RideVehicle), CharacterTemporaryStat.FLAG_SIZE);
             ss.getTemporaryStats().put(CharacterTemporaryStat.RideVehicle, TwoStateTemporaryStat.ofTwoState(CharacterTemporaryStat.RideVehicle, vehicleId, Beginner.MONSTER_RIDER, 0));
             user.write(WvsContext.temporaryStatSet(ss, flag));
-            user.getField().broadcastPacket(UserRemote.temporaryStatSet(user, ss, flag));
+            user.getField().broadcastNearbyPacket(UserRemote.temporaryStatSet(user, ss, flag), user, true);
         }
     }
 
@@ -186,14 +186,14 @@ public abstract class MiniGameRoom extends MiniRoom {
     @Override
     public final void close() {
         super.close();
-        getOwner().getField().broadcastPacket(UserPacket.userMiniRoomBalloonRemove(getOwner()));
+        getOwner().getField().broadcastNearbyPacket(UserPacket.userMiniRoomBalloonRemove(getOwner()), getOwner(), true);
     }
 
 
     // UTILITY METHODS -------------------------------------------------------------------------------------------------
 
     public final void updateBalloon() {
-        getOwner().getField().broadcastPacket(UserPacket.userMiniRoomBalloon(getOwner(), this));
+        getOwner().getField().broadcastNearbyPacket(UserPacket.userMiniRoomBalloon(getOwner(), this), getOwner(), true);
     }
 
     /**
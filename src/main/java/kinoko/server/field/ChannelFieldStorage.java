@@ -2,33 +2,128 @@ package kinoko.server.field;
 
 import kinoko.provider.MapProvider;
 import kinoko.provider.map.MapInfo;
+import kinoko.server.ServerConfig;
+import kinoko.server.node.ServerExecutor;
 import kinoko.world.field.Field;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class ChannelFieldStorage implements FieldStorage {
+    private static final Logger log = LogManager.getLogger(ChannelFieldStorage.class);
+    private static final int EVICT_INTERVAL = 60; // seconds
+    private static final LongAdder evictedCount = new LongAdder();
     private final ConcurrentHashMap<Integer, Field> fieldMap = new ConcurrentHashMap<>(); // map id -> field
+    private final ConcurrentHashMap<Integer, Object> fieldLocks = new ConcurrentHashMap<>(); // map id -> creation lock
+    private ScheduledFuture<?> evictSchedule;
+
+    public void initialize() {
+        if (ServerConfig.FIELD_HIBERNATE_DELAY > 0) {
+            evictSchedule = ServerExecutor.scheduleServiceWithFixedDelay(this::evictFields, EVICT_INTERVAL, EVICT_INTERVAL, TimeUnit.SECONDS);
+        }
+    }
 
     @Override
-    public synchronized Optional<Field> getFieldById(int mapId) {
+    public Optional<Field> getFieldById(int mapId) {
         final Field field = fieldMap.get(mapId);
-        if (field != null) {
+        if (field != null && field.keepAlive()) {
             return Optional.of(field);
         }
-        final Optional<Field> fieldResult = createField(this, mapId);
-        fieldResult.ifPresent(value -> fieldMap.put(mapId, value));
-        return fieldResult;
+        // Created under a lock for each map, so that only one field is created per map and eviction is not interleaved
+        while (true) {
+            final Object lock = getFieldLock(mapId);
+            synchronized (lock) {
+                if (fieldLocks.get(mapId) != lock) {
+                    // Removed by eviction while waiting for the lock
+                    continue;
+                }
+                final Field existingField = fieldMap.get(mapId);
+                if (existingField != null && existingField.keepAlive()) {
+                    return Optional.of(existingField);
+                }
+                final Optional<Field> fieldResult = createField(this, mapId);
+                if (fieldResult.isPresent()) {
+                    fieldMap.put(mapId, fieldResult.get());
+                } else {
+                    fieldLocks.remove(mapId, lock);
+                }
+                return fieldResult;
+            }
+        }
     }
 
     @Override
     public void clear() {
+        if (evictSchedule != null) {
+            evictSchedule.cancel(true);
+        }
         final var iter = fieldMap.values().iterator();
         while (iter.hasNext()) {
             final Field field = iter.next();
-            field.getFieldEventFuture().cancel(true);
+            ServerExecutor.removeField(field);
             iter.remove();
         }
+        fieldLocks.clear();
+    }
+
+    public static long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * Unloads hibernated fields that have been idle for {@link ServerConfig#FIELD_EVICT_DELAY}, or every hibernated
+     * field if the heap usage is above {@link ServerConfig#FIELD_EVICT_HEAP_USAGE}. An unloaded field is created again
+     * by {@link #getFieldById(int)} on the next lookup.
+     */
+    private void evictFields() {
+        final Instant now = Instant.now();
+        final boolean memoryPressure = isMemoryPressure();
+        int evicted = 0;
+        for (Field field : fieldMap.values()) {
+            if (!field.isHibernated()) {
+                continue;
+            }
+            if (!memoryPressure && (ServerConfig.FIELD_EVICT_DELAY <= 0 ||
+                    now.isBefore(field.getLastActive().plus(ServerConfig.FIELD_EVICT_DELAY, ChronoUnit.SECONDS)))) {
+                continue;
+            }
+            final Object lock = getFieldLock(field.getFieldId());
+            synchronized (lock) {
+                // Marked as evicted before removal, so that a concurrent lookup creates a new field instead of waking it
+                if (fieldMap.get(field.getFieldId()) == field && field.evict()) {
+                    fieldMap.remove(field.getFieldId(), field);
+                    // Lookups waiting for the lock retry with a new lock, so that the lock map does not grow with every
+                    // map that was ever loaded
+                    fieldLocks.remove(field.getFieldId(), lock);
+                    ServerExecutor.removeField(field);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            evictedCount.add(evicted);
+            log.debug("Evicted {} idle fields{}", evicted, memoryPressure ? " due to memory pressure" : "");
+        }
+    }
+
+    private Object getFieldLock(int mapId) {
+        return fieldLocks.computeIfAbsent(mapId, (key) -> new Object());
+    }
+
+    private static boolean isMemoryPressure() {
+        if (ServerConfig.FIELD_EVICT_HEAP_USAGE <= 0) {
+            return false;
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        final long used = runtime.totalMemory() - runtime.freeMemory();
+        return used * 100 > runtime.maxMemory() * ServerConfig.FIELD_EVICT_HEAP_USAGE;
     }
 
     private static Optional<Field> createField(FieldStorage fieldStorage, int mapId) {
@@ -1,6 +1,7 @@
 package kinoko.server.field;
 
 import kinoko.provider.map.MapInfo;
+import kinoko.server.node.ServerExecutor;
 import kinoko.world.field.Field;
 
 import java.util.List;
@@ -29,7 +30,7 @@ public final class InstanceFieldStorage implements FieldStorage {
         final var iter = fieldMap.values().iterator();
         while (iter.hasNext()) {
             final Field field = iter.next();
-            field.getFieldEventFuture().cancel(true);
+            ServerExecutor.removeField(field);
             iter.remove();
         }
     }
@@ -0,0 +1,127 @@
+package kinoko.server.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kinoko.server.ServerConfig;
+import kinoko.server.ServerConstants;
+import kinoko.server.field.ChannelFieldStorage;
+import kinoko.server.netty.FloodControl;
+import kinoko.server.netty.OutboundQueue;
+import kinoko.server.node.ExecutorBalancer;
+import kinoko.server.node.FieldPlacement;
+import kinoko.server.node.ServerExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Exposes {@link PacketMetrics} through JMX and a local HTTP endpoint serving the Prometheus text format.
+ */
+public final class MetricsServer {
+    private static final Logger log = LogManager.getLogger(MetricsServer.class);
+    private static final String OBJECT_NAME = "kinoko:type=PacketMetrics";
+    private static final int SLOWEST_FIELDS = 10;
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static HttpServer httpServer;
+
+    public static void initialize() throws Exception {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new PacketMetrics.MXBean(), new ObjectName(OBJECT_NAME));
+        if (ServerConstants.METRICS_PORT <= 0) {
+            return;
+        }
+        httpServer = HttpServer.create(new InetSocketAddress(ServerConstants.METRICS_HOST, ServerConstants.METRICS_PORT), 0);
+        httpServer.createContext("/metrics", MetricsServer::handleMetrics);
+        httpServer.start();
+        log.info("Metrics endpoint listening on {}:{}", ServerConstants.METRICS_HOST, ServerConstants.METRICS_PORT);
+    }
+
+    public static void shutdown() throws Exception {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+    }
+
+    public static String getPrometheusText() {
+        final StringBuilder sb = new StringBuilder(0x4000);
+        PacketMetrics.writePrometheus(sb);
+        PacketMetrics.writeHeader(sb, "kinoko_flood_control_total", "counter", "Inbound packets rejected by flood control for each policy.");
+        sb.append("kinoko_flood_control_total{policy=\"DROP\"} ").append(FloodControl.getTotalDroppedCount()).append('\n');
+        sb.append("kinoko_flood_control_total{policy=\"DELAY\"} ").append(FloodControl.getTotalDelayedCount()).append('\n');
+        sb.append("kinoko_flood_control_total{policy=\"DISCONNECT\"} ").append(FloodControl.getTotalDisconnectCount()).append('\n');
+        PacketMetrics.writeHeader(sb, "kinoko_slow_consumer_total", "counter", "Times a client outbound buffer exceeded the high water mark.");
+        sb.append("kinoko_slow_consumer_total ").append(OutboundQueue.getSlowConsumerCount()).append('\n');
+        PacketMetrics.writeHeader(sb, "kinoko_slow_consumer_disconnect_total", "counter", "Clients disconnected for staying above the high water mark.");
+        sb.append("kinoko_slow_consumer_disconnect_total ").append(OutboundQueue.getSlowConsumerDisconnectCount()).append('\n');
+        PacketMetrics.writeHeader(sb, "kinoko_superseded_packets_total", "counter", "Low priority outbound packets replaced by a newer packet while a client was backed up.");
+        sb.append("kinoko_superseded_packets_total ").append(OutboundQueue.getSupersededCount()).append('\n');
+        writeExecutorMetrics(sb);
+        return sb.toString();
+    }
+
+    private static void writeExecutorMetrics(StringBuilder sb) {
+        final ExecutorBalancer executorBalancer = ServerExecutor.getExecutorBalancer();
+        final double[] utilization = executorBalancer.getUtilization();
+        final int[] fieldCounts = executorBalancer.getFieldCounts();
+        PacketMetrics.writeHeader(sb, "kinoko_executor_utilization", "gauge", "Fraction of the last rebalance interval each game executor spent running tasks.");
+        for (int i = 0; i < utilization.length; i++) {
+            sb.append("kinoko_executor_utilization{executor=\"").append(i).append("\"} ").append(utilization[i]).append('\n');
+        }
+        PacketMetrics.writeHeader(sb, "kinoko_executor_fields", "gauge", "Fields updated by each game executor, excluding hibernated fields.");
+        for (int i = 0; i < fieldCounts.length; i++) {
+            sb.append("kinoko_executor_fields{executor=\"").append(i).append("\"} ").append(fieldCounts[i]).append('\n');
+        }
+        final long[] lastUpdateNanos = executorBalancer.getLastUpdateNanos();
+        final long[] overrunCounts = executorBalancer.getOverrunCounts();
+        PacketMetrics.writeHeader(sb, "kinoko_executor_tick_seconds", "gauge", "Duration of the last field update pass of each game executor.");
+        for (int i = 0; i < lastUpdateNanos.length; i++) {
+            sb.append("kinoko_executor_tick_seconds{executor=\"").append(i).append("\"} ").append(lastUpdateNanos[i] / 1e9).append('\n');
+        }
+        PacketMetrics.writeHeader(sb, "kinoko_executor_tick_budget", "gauge", "Fraction of the field tick interval used by the last update pass of each game executor.");
+        for (int i = 0; i < lastUpdateNanos.length; i++) {
+            sb.append("kinoko_executor_tick_budget{executor=\"").append(i).append("\"} ").append(lastUpdateNanos[i] / (ServerConfig.FIELD_TICK_INTERVAL * 1e6)).append('\n');
+        }
+        PacketMetrics.writeHeader(sb, "kinoko_executor_tick_overruns_total", "counter", "Field update passes that took longer than the field tick interval.");
+        for (int i = 0; i < overrunCounts.length; i++) {
+            sb.append("kinoko_executor_tick_overruns_total{executor=\"").append(i).append("\"} ").append(overrunCounts[i]).append('\n');
+        }
+        PacketMetrics.writeHeader(sb, "kinoko_field_tick_seconds", "gauge", "Duration of the last update of the slowest fields.");
+        final List<FieldPlacement> slowestFields = executorBalancer.getSlowestFields(SLOWEST_FIELDS);
+        for (int i = 0; i < slowestFields.size(); i++) {
+            // Ranked, as the same map is loaded once per channel
+            final FieldPlacement placement = slowestFields.get(i);
+            sb.append("kinoko_field_tick_seconds{rank=\"").append(i).append("\",field=\"").append(placement.getFieldId())
+                    .append("\",executor=\"").append(placement.getExecutorIndex()).append("\"} ").append(placement.getLastUpdateNanos() / 1e9).append('\n');
+        }
+        PacketMetrics.writeHeader(sb, "kinoko_hibernated_fields", "gauge", "Idle fields that are loaded but not updated.");
+        sb.append("kinoko_hibernated_fields ").append(executorBalancer.getHibernatedCount()).append('\n');
+        PacketMetrics.writeHeader(sb, "kinoko_evicted_fields_total", "counter", "Idle fields unloaded from channel field storage.");
+        sb.append("kinoko_evicted_fields_total ").append(ChannelFieldStorage.getEvictedCount()).append('\n');
+        PacketMetrics.writeHeader(sb, "kinoko_field_placements_total", "counter", "Fields placed on the least loaded game executor.");
+        sb.append("kinoko_field_placements_total ").append(executorBalancer.getPlacementCount()).append('\n');
+        PacketMetrics.writeHeader(sb, "kinoko_field_migrations_total", "counter", "Fields moved to a less loaded game executor.");
+        sb.append("kinoko_field_migrations_total ").append(executorBalancer.getMigrationCount()).append('\n');
+    }
+
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] response = getPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+}
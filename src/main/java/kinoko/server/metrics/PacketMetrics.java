@@ -0,0 +1,226 @@
+package kinoko.server.metrics;
+
+import kinoko.server.header.InHeader;
+import kinoko.server.header.OutHeader;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-header packet counters. Every counter is allocated up front in arrays indexed by the header ordinal, so that
+ * recording a packet does not allocate and does not contend with other threads on a shared lock.
+ */
+public final class PacketMetrics {
+    public static final long[] HANDLER_TIME_BUCKETS = {
+            TimeUnit.MICROSECONDS.toNanos(50),
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(250),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MICROSECONDS.toNanos(2500),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(25),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(250),
+    }; // upper bounds, the last bucket holds everything above
+    private static final InHeader[] inHeaders = InHeader.values();
+    private static final OutHeader[] outHeaders = OutHeader.values();
+    private static final LongAdder[] inCount = createCounters(inHeaders.length);
+    private static final LongAdder[] inBytes = createCounters(inHeaders.length);
+    private static final LongAdder[] inQueueTime = createCounters(inHeaders.length);
+    private static final LongAdder[] inHandlerTime = createCounters(inHeaders.length);
+    private static final LongAdder[] inHandlerCount = createCounters(inHeaders.length);
+    private static final LongAdder[] inHandlerBuckets = createCounters(inHeaders.length * (HANDLER_TIME_BUCKETS.length + 1));
+    private static final LongAdder[] outCount = createCounters(outHeaders.length);
+    private static final LongAdder[] outBytes = createCounters(outHeaders.length);
+
+    public static void recordInbound(InHeader header, int length) {
+        final int index = header.ordinal();
+        inCount[index].increment();
+        inBytes[index].add(length);
+    }
+
+    public static void recordHandled(InHeader header, long queueTime, long handlerTime) {
+        final int index = header.ordinal();
+        inQueueTime[index].add(queueTime);
+        inHandlerTime[index].add(handlerTime);
+        inHandlerCount[index].increment();
+        int bucket = 0;
+        while (bucket < HANDLER_TIME_BUCKETS.length && handlerTime > HANDLER_TIME_BUCKETS[bucket]) {
+            bucket++;
+        }
+        inHandlerBuckets[index * (HANDLER_TIME_BUCKETS.length + 1) + bucket].increment();
+    }
+
+    public static void recordOutbound(OutHeader header, int length) {
+        final int index = header.ordinal();
+        outCount[index].increment();
+        outBytes[index].add(length);
+    }
+
+    public static long getInboundCount(InHeader header) {
+        return inCount[header.ordinal()].sum();
+    }
+
+    public static long getInboundBytes(InHeader header) {
+        return inBytes[header.ordinal()].sum();
+    }
+
+    public static long getInboundQueueTime(InHeader header) {
+        return inQueueTime[header.ordinal()].sum();
+    }
+
+    public static long getInboundHandlerTime(InHeader header) {
+        return inHandlerTime[header.ordinal()].sum();
+    }
+
+    public static long getInboundHandlerCount(InHeader header) {
+        return inHandlerCount[header.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of handler executions in each bucket of {@link #HANDLER_TIME_BUCKETS}. The returned counts are
+     * not cumulative, and the last element holds the executions slower than every bucket.
+     */
+    public static long[] getInboundHandlerBuckets(InHeader header) {
+        final long[] buckets = new long[HANDLER_TIME_BUCKETS.length + 1];
+        final int offset = header.ordinal() * buckets.length;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = inHandlerBuckets[offset + i].sum();
+        }
+        return buckets;
+    }
+
+    public static long getOutboundCount(OutHeader header) {
+        return outCount[header.ordinal()].sum();
+    }
+
+    public static long getOutboundBytes(OutHeader header) {
+        return outBytes[header.ordinal()].sum();
+    }
+
+    /**
+     * Appends the packet counters in the Prometheus text exposition format.
+     */
+    static void writePrometheus(StringBuilder sb) {
+        writeHeader(sb, "kinoko_inbound_packets_total", "counter", "Inbound packets received for each header.");
+        writeCounters(sb, "kinoko_inbound_packets_total", inHeaders, inCount, 1);
+        writeHeader(sb, "kinoko_inbound_bytes_total", "counter", "Inbound packet bytes received for each header.");
+        writeCounters(sb, "kinoko_inbound_bytes_total", inHeaders, inBytes, 1);
+        writeHeader(sb, "kinoko_inbound_queue_seconds_total", "counter", "Time spent by inbound packets queued on the executor.");
+        writeCounters(sb, "kinoko_inbound_queue_seconds_total", inHeaders, inQueueTime, TimeUnit.SECONDS.toNanos(1));
+        writeHeader(sb, "kinoko_inbound_handler_seconds", "histogram", "Execution time of the packet handler for each header.");
+        for (InHeader header : inHeaders) {
+            final long count = inHandlerCount[header.ordinal()].sum();
+            if (count == 0) {
+                continue;
+            }
+            final long[] buckets = getInboundHandlerBuckets(header);
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i];
+                final String le = i < HANDLER_TIME_BUCKETS.length ? toSeconds(HANDLER_TIME_BUCKETS[i], TimeUnit.SECONDS.toNanos(1)) : "+Inf";
+                sb.append("kinoko_inbound_handler_seconds_bucket{header=\"").append(header.name()).append("\",le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+            }
+            sb.append("kinoko_inbound_handler_seconds_sum{header=\"").append(header.name()).append("\"} ")
+                    .append(toSeconds(inHandlerTime[header.ordinal()].sum(), TimeUnit.SECONDS.toNanos(1))).append('\n');
+            sb.append("kinoko_inbound_handler_seconds_count{header=\"").append(header.name()).append("\"} ").append(count).append('\n');
+        }
+        writeHeader(sb, "kinoko_outbound_packets_total", "counter", "Outbound packets encoded for each header.");
+        writeCounters(sb, "kinoko_outbound_packets_total", outHeaders, outCount, 1);
+        writeHeader(sb, "kinoko_outbound_bytes_total", "counter", "Outbound packet bytes encoded for each header.");
+        writeCounters(sb, "kinoko_outbound_bytes_total", outHeaders, outBytes, 1);
+    }
+
+    static void writeHeader(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeCounters(StringBuilder sb, String name, Enum<?>[] headers, LongAdder[] counters, long divisor) {
+        for (Enum<?> header : headers) {
+            final long value = counters[header.ordinal()].sum();
+            if (value == 0) {
+                continue;
+            }
+            sb.append(name).append("{header=\"").append(header.name()).append("\"} ");
+            if (divisor == 1) {
+                sb.append(value);
+            } else {
+                sb.append(toSeconds(value, divisor));
+            }
+            sb.append('\n');
+        }
+    }
+
+    private static String toSeconds(long value, long divisor) {
+        return Double.toString((double) value / divisor);
+    }
+
+    static Map<String, Long> toInboundMap(LongAdder[] counters, long divisor) {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        for (InHeader header : inHeaders) {
+            final long value = counters[header.ordinal()].sum();
+            if (value != 0) {
+                map.put(header.name(), value / divisor);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    static Map<String, Long> toOutboundMap(LongAdder[] counters) {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        for (OutHeader header : outHeaders) {
+            final long value = counters[header.ordinal()].sum();
+            if (value != 0) {
+                map.put(header.name(), value);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static LongAdder[] createCounters(int size) {
+        final LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    static final class MXBean implements PacketMetricsMXBean {
+        @Override
+        public Map<String, Long> getInboundCount() {
+            return toInboundMap(inCount, 1);
+        }
+
+        @Override
+        public Map<String, Long> getInboundBytes() {
+            return toInboundMap(inBytes, 1);
+        }
+
+        @Override
+        public Map<String, Long> getInboundQueueTimeMicros() {
+            return toInboundMap(inQueueTime, TimeUnit.MICROSECONDS.toNanos(1));
+        }
+
+        @Override
+        public Map<String, Long> getInboundHandlerTimeMicros() {
+            return toInboundMap(inHandlerTime, TimeUnit.MICROSECONDS.toNanos(1));
+        }
+
+        @Override
+        public Map<String, Long> getOutboundCount() {
+            return toOutboundMap(outCount);
+        }
+
+        @Override
+        public Map<String, Long> getOutboundBytes() {
+            return toOutboundMap(outBytes);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package kinoko.server.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PacketMetrics}, keyed by header name. Headers without any recorded packets are omitted.
+ */
+public interface PacketMetricsMXBean {
+    Map<String, Long> getInboundCount();
+
+    Map<String, Long> getInboundBytes();
+
+    Map<String, Long> getInboundQueueTimeMicros();
+
+    Map<String, Long> getInboundHandlerTimeMicros();
+
+    Map<String, Long> getOutboundCount();
+
+    Map<String, Long> getOutboundBytes();
+}
@@ -0,0 +1,39 @@
+package kinoko.server.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import kinoko.server.ServerConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defers flushes on a central server connection until the end of the flush window, so that bursts of central packets
+ * are written to the socket together instead of one syscall per packet. Should be the first handler in the pipeline.
+ */
+public final class CentralFlushHandler extends ChannelOutboundHandlerAdapter {
+    private boolean flushScheduled = false;
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        if (ServerConfig.CENTRAL_FLUSH_WINDOW <= 0) {
+            ctx.flush();
+            return;
+        }
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        ctx.executor().schedule(() -> {
+            flushScheduled = false;
+            ctx.flush();
+        }, ServerConfig.CENTRAL_FLUSH_WINDOW, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        // Write out pending packets before closing, e.g. the shutdown result
+        ctx.flush();
+        ctx.close(promise);
+    }
+}
@@ -19,7 +19,7 @@ public final class CentralPacketEncoder extends MessageToByteEncoder<OutPacket>
         c.acquireEncoderState();
         try {
             out.writeIntLE(outPacket.getSize());
-            out.writeBytes(outPacket.getData());
+            outPacket.writeTo(out);
         } finally {
             c.releaseEncoderState();
         }
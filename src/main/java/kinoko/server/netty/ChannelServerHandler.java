@@ -11,6 +11,8 @@ import kinoko.server.migration.MigrationInfo;
 import kinoko.server.migration.TransferInfo;
 import kinoko.server.node.ChannelServerNode;
 import kinoko.server.node.ServerExecutor;
+import kinoko.server.packet.BroadcastPacket;
+import kinoko.server.packet.EncodedPacket;
 import kinoko.server.packet.InPacket;
 import kinoko.server.packet.OutPacket;
 import kinoko.server.user.RemoteUser;
@@ -126,7 +128,7 @@ public final class ChannelServerHandler extends SimpleChannelInboundHandler<InPa
         }
         final int packetLength = inPacket.decodeInt();
         final byte[] packetData = inPacket.decodeArray(packetLength);
-        final OutPacket outPacket = OutPacket.of(packetData);
+        final EncodedPacket outPacket = BroadcastPacket.from(OutPacket.of(packetData));
         for (int characterId : characterIds) {
             final Optional<User> targetUserResult = channelServerNode.getUserByCharacterId(characterId);
             if (targetUserResult.isEmpty()) {
@@ -222,8 +224,8 @@ public final class ChannelServerHandler extends SimpleChannelInboundHandler<InPa
             final User user = locked.get();
             // Set guild info and broadcast
             user.setGuildInfo(guildInfo);
-            user.getField().broadcastPacket(UserRemote.guildNameChanged(user, guildInfo), user);
-            user.getField().broadcastPacket(UserRemote.guildMarkChanged(user, guildInfo), user);
+            user.getField().broadcastNearbyPacket(UserRemote.guildNameChanged(user, guildInfo), user);
+            user.getField().broadcastNearbyPacket(UserRemote.guildMarkChanged(user, guildInfo), user);
         }
     }
 }
@@ -0,0 +1,257 @@
+package kinoko.server.netty;
+
+import kinoko.server.ServerConfig;
+import kinoko.server.header.InHeader;
+import kinoko.server.packet.InPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-connection token buckets for inbound packets, checked on the channel event loop before a packet is submitted to
+ * the game executor. Every packet consumes a token from the client bucket, and packets with a {@link Limit} also
+ * consume a token from their own bucket. Instances are confined to the event loop of the owning channel.
+ */
+public final class FloodControl {
+    private static final Logger log = LogManager.getLogger(FloodControl.class);
+    private static final Policy clientPolicy = Policy.fromConfig(ServerConfig.FLOOD_CONTROL_POLICY);
+    private static final Limit clientLimit = new Limit(-1, ServerConfig.FLOOD_CONTROL_RATE, ServerConfig.FLOOD_CONTROL_BURST, clientPolicy);
+    private static final Map<InHeader, Limit> headerLimits;
+    private static final Limit[] headerLimitArray; // indexed by InHeader ordinal
+    private static final LongAdder droppedCount = new LongAdder();
+    private static final LongAdder delayedCount = new LongAdder();
+    private static final LongAdder disconnectCount = new LongAdder();
+
+    static {
+        final Map<InHeader, Limit> limits = new EnumMap<>(InHeader.class);
+        // Login
+        addLimit(limits, InHeader.CheckPassword, 2, 5, Policy.DROP);
+        addLimit(limits, InHeader.CheckDuplicatedID, 5, 10, Policy.DROP);
+        addLimit(limits, InHeader.CreateNewCharacter, 2, 5, Policy.DROP);
+        // Movement, MobMove is sent for every controlled mob and is only limited by the client bucket
+        addLimit(limits, InHeader.UserMove, 30, 60, Policy.DROP);
+        addLimit(limits, InHeader.PetMove, 30, 60, Policy.DROP);
+        addLimit(limits, InHeader.DragonMove, 30, 60, Policy.DROP);
+        addLimit(limits, InHeader.SummonedMove, 60, 120, Policy.DROP);
+        addLimit(limits, InHeader.NpcMove, 30, 60, Policy.DROP);
+        addLimit(limits, InHeader.UserEmotion, 5, 10, Policy.DROP);
+        // Chat
+        addLimit(limits, InHeader.UserChat, 5, 10, Policy.DROP);
+        addLimit(limits, InHeader.GroupMessage, 5, 10, Policy.DROP);
+        addLimit(limits, InHeader.Whisper, 5, 10, Policy.DROP);
+        addLimit(limits, InHeader.Messenger, 5, 10, Policy.DROP);
+        // Attacks
+        addLimit(limits, InHeader.UserMeleeAttack, 20, 40, Policy.DELAY);
+        addLimit(limits, InHeader.UserShootAttack, 20, 40, Policy.DELAY);
+        addLimit(limits, InHeader.UserMagicAttack, 20, 40, Policy.DELAY);
+        addLimit(limits, InHeader.UserBodyAttack, 20, 40, Policy.DELAY);
+        addLimit(limits, InHeader.UserSkillUseRequest, 20, 40, Policy.DELAY);
+        parseLimits(limits, ServerConfig.FLOOD_CONTROL_LIMITS);
+        headerLimits = Collections.unmodifiableMap(limits);
+        headerLimitArray = new Limit[InHeader.values().length];
+        int index = 0;
+        for (var entry : limits.entrySet()) {
+            final Limit limit = entry.getValue();
+            headerLimitArray[entry.getKey().ordinal()] = new Limit(index++, limit.rate, limit.burst, limit.policy);
+        }
+    }
+
+    private final TokenBucket clientBucket = new TokenBucket(clientLimit, System.nanoTime());
+    private final TokenBucket[] headerBuckets = new TokenBucket[headerLimits.size()];
+    private final Queue<DelayedPacket> delayedPackets = new ArrayDeque<>();
+    private Policy rejectPolicy;
+    private long rejectDelay;
+    private long violationCount;
+
+    /**
+     * Checks whether the packet can be dispatched, consuming a token from the client bucket and the header bucket.
+     *
+     * @return null if the packet can be dispatched, otherwise the {@link Policy} to apply to the packet.
+     */
+    public Policy check(InHeader header) {
+        if (!ServerConfig.FLOOD_CONTROL) {
+            return null;
+        }
+        if (!delayedPackets.isEmpty()) {
+            // Preserve packet order while there are delayed packets
+            return Policy.DELAY;
+        }
+        if (tryAcquire(header, System.nanoTime()) == 0) {
+            return null;
+        }
+        violationCount++;
+        switch (rejectPolicy) {
+            case DROP -> droppedCount.increment();
+            case DELAY -> delayedCount.increment();
+            case DISCONNECT -> disconnectCount.increment();
+        }
+        return rejectPolicy;
+    }
+
+    /**
+     * Attempts to consume a token from each bucket that applies to the header. Tokens are only consumed if all buckets
+     * have a token available.
+     *
+     * @return 0 if the tokens were consumed, otherwise the number of nanoseconds until the tokens are available.
+     */
+    public long tryAcquire(InHeader header, long now) {
+        final Limit headerLimit = headerLimitArray[header.ordinal()];
+        TokenBucket headerBucket = null;
+        if (headerLimit != null) {
+            headerBucket = headerBuckets[headerLimit.index];
+            if (headerBucket == null) {
+                headerBucket = new TokenBucket(headerLimit, now);
+                headerBuckets[headerLimit.index] = headerBucket;
+            }
+        }
+        final long clientWait = clientBucket.getWaitTime(now);
+        final long headerWait = headerBucket != null ? headerBucket.getWaitTime(now) : 0;
+        if (clientWait == 0 && headerWait == 0) {
+            clientBucket.consume();
+            if (headerBucket != null) {
+                headerBucket.consume();
+            }
+            return 0;
+        }
+        // Header limits take precedence, as they are stricter than the client limit
+        rejectPolicy = headerWait > 0 ? headerLimit.policy : clientLimit.policy;
+        rejectDelay = Math.max(clientWait, headerWait);
+        return rejectDelay;
+    }
+
+    /**
+     * Queues a packet to be dispatched once there are tokens available.
+     *
+     * @return false if the delay queue is full.
+     */
+    public boolean offerDelayed(InHeader header, InPacket inPacket) {
+        if (delayedPackets.size() >= ServerConfig.FLOOD_CONTROL_QUEUE) {
+            return false;
+        }
+        delayedPackets.add(new DelayedPacket(header, inPacket));
+        return true;
+    }
+
+    public DelayedPacket peekDelayed() {
+        return delayedPackets.peek();
+    }
+
+    public DelayedPacket pollDelayed() {
+        return delayedPackets.poll();
+    }
+
+    /**
+     * Returns the number of nanoseconds until the last rejected packet could have been dispatched.
+     */
+    public long getRejectDelay() {
+        return rejectDelay;
+    }
+
+    public int getDelayedCount() {
+        return delayedPackets.size();
+    }
+
+    public long getViolationCount() {
+        return violationCount;
+    }
+
+    public static long getTotalDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public static long getTotalDelayedCount() {
+        return delayedCount.sum();
+    }
+
+    public static long getTotalDisconnectCount() {
+        return disconnectCount.sum();
+    }
+
+    private static void addLimit(Map<InHeader, Limit> limits, InHeader header, int rate, int burst, Policy policy) {
+        limits.put(header, new Limit(-1, rate, burst, policy));
+    }
+
+    /**
+     * Applies the header limits in the format {@code header:rate:burst:policy}, separated by commas. The burst and policy
+     * can be omitted, defaulting to twice the rate and {@link Policy#DROP}. A rate of 0 removes the limit of the header.
+     */
+    static void parseLimits(Map<InHeader, Limit> limits, String config) {
+        for (String entry : config.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            final String[] parts = entry.trim().split(":");
+            try {
+                final InHeader header = InHeader.valueOf(parts[0]);
+                final int rate = Integer.parseInt(parts[1]);
+                if (rate <= 0) {
+                    limits.remove(header);
+                    continue;
+                }
+                final int burst = parts.length > 2 ? Integer.parseInt(parts[2]) : rate * 2;
+                final Policy policy = parts.length > 3 ? Policy.fromConfig(parts[3]) : Policy.DROP;
+                addLimit(limits, header, rate, burst, policy);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                log.error("Could not parse flood control limit {}", entry);
+            }
+        }
+    }
+
+    public enum Policy {
+        DROP,
+        DELAY,
+        DISCONNECT;
+
+        private static Policy fromConfig(String name) {
+            try {
+                return Policy.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.error("Unknown flood control policy {}, defaulting to {}", name, DELAY);
+                return DELAY;
+            }
+        }
+    }
+
+    public record DelayedPacket(InHeader header, InPacket inPacket) {
+    }
+
+    record Limit(int index, int rate, int burst, Policy policy) {
+    }
+
+    private static final class TokenBucket {
+        private static final double TOKEN_EPSILON = 1e-6; // absorb rounding of the refill after waiting exactly the wait time
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(Limit limit, long now) {
+            this.tokensPerNano = (double) limit.rate / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(limit.burst, 1);
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        private long getWaitTime(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+            }
+            if (tokens >= 1.0 - TOKEN_EPSILON) {
+                return 0;
+            }
+            return Math.max((long) Math.ceil((1.0 - tokens) / tokensPerNano), 1);
+        }
+
+        private void consume() {
+            tokens -= 1.0;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package kinoko.server.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import kinoko.server.packet.NioBufferInPacket;
+import kinoko.server.packet.OutPacket;
+
+import java.util.List;
+
+/**
+ * Passes central packets to the peer of an in-process {@link io.netty.channel.local.LocalChannel} as an
+ * {@link kinoko.server.packet.InPacket}, replacing {@link CentralPacketEncoder} and {@link CentralPacketDecoder} when
+ * the central server node runs in the same process.
+ */
+public final class LocalPacketEncoder extends MessageToMessageEncoder<OutPacket> {
+    @Override
+    protected void encode(ChannelHandlerContext ctx, OutPacket outPacket, List<Object> out) {
+        // The packet may be written to multiple nodes, so each peer receives its own copy of the data
+        out.add(new NioBufferInPacket(outPacket.getData()));
+    }
+}
@@ -2,17 +2,29 @@ package kinoko.server.netty;
 
 import io.netty.channel.socket.SocketChannel;
 import io.netty.util.AttributeKey;
+import kinoko.server.ServerConfig;
 import kinoko.server.node.ServerNode;
-import kinoko.server.packet.OutPacket;
+import kinoko.server.packet.EncodedPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class NettyClient {
+    private static final Logger log = LogManager.getLogger(NettyClient.class);
     public static final AttributeKey<NettyClient> CLIENT_KEY = AttributeKey.valueOf("C");
+    private static final ThreadLocal<PendingFlush> pendingFlush = ThreadLocal.withInitial(PendingFlush::new);
     private final Lock encoderLock = new ReentrantLock();
+    private final FloodControl floodControl = new FloodControl();
+    private final OutboundQueue outboundQueue = new OutboundQueue();
     private final ServerNode serverNode;
     private final SocketChannel socketChannel;
+    private PacketCapture packetCapture;
     private byte[] sendIv;
     private byte[] recvIv;
     private int storedLength = -1;
@@ -50,6 +62,22 @@ public abstract class NettyClient {
         this.storedLength = storedLength;
     }
 
+    public final FloodControl getFloodControl() {
+        return floodControl;
+    }
+
+    public final PacketCapture getPacketCapture() {
+        return packetCapture;
+    }
+
+    public final void setPacketCapture(PacketCapture packetCapture) {
+        this.packetCapture = packetCapture;
+    }
+
+    public final OutboundQueue getOutboundQueue() {
+        return outboundQueue;
+    }
+
     public final void acquireEncoderState() {
         encoderLock.lock();
     }
@@ -58,11 +86,98 @@ public abstract class NettyClient {
         encoderLock.unlock();
     }
 
-    public final void write(OutPacket outPacket) {
+    public final void write(EncodedPacket outPacket) {
+        final List<EncodedPacket> packets = outboundQueue.submit(outPacket, socketChannel.isWritable());
+        if (packets.isEmpty()) {
+            // Held until the channel is writable, superseded by later packets for the same object. The event loop may
+            // have drained the queue between the check and the offer, in which case the held packet is written here.
+            if (socketChannel.isWritable()) {
+                socketChannel.eventLoop().execute(this::writeHeldPackets);
+            }
+            return;
+        }
+        for (int i = 0; i < packets.size() - 1; i++) {
+            socketChannel.write(packets.get(i));
+        }
+        if (ServerConfig.COALESCE_CLIENT_WRITES) {
+            final PendingFlush pending = pendingFlush.get();
+            if (pending.active) {
+                socketChannel.write(outPacket);
+                pending.clients.add(this);
+                return;
+            }
+        }
         socketChannel.writeAndFlush(outPacket);
     }
 
     public void close() {
+        if (ServerConfig.COALESCE_CLIENT_WRITES) {
+            socketChannel.flush();
+        }
         socketChannel.close();
     }
+
+    /**
+     * Called on the event loop when the outbound buffer crosses the high or low water mark. Writes the held packets once
+     * the channel is writable again, and closes the channel if it stays unwritable for
+     * {@link ServerConfig#CLIENT_BACKPRESSURE_TIMEOUT} seconds.
+     */
+    public final void onWritabilityChanged() {
+        if (socketChannel.isWritable()) {
+            outboundQueue.onWritable();
+            writeHeldPackets();
+            return;
+        }
+        final long since = outboundQueue.onUnwritable(System.nanoTime());
+        socketChannel.eventLoop().schedule(() -> {
+            if (socketChannel.isActive() && outboundQueue.isUnwritableSince(since)) {
+                log.warn("Closing client that stayed above the write buffer high water mark for {} seconds", ServerConfig.CLIENT_BACKPRESSURE_TIMEOUT);
+                OutboundQueue.recordSlowConsumerDisconnect();
+                close();
+            }
+        }, ServerConfig.CLIENT_BACKPRESSURE_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    private void writeHeldPackets() {
+        if (!socketChannel.isWritable()) {
+            return;
+        }
+        final List<EncodedPacket> heldPackets = outboundQueue.drain();
+        if (!heldPackets.isEmpty()) {
+            for (EncodedPacket outPacket : heldPackets) {
+                socketChannel.write(outPacket);
+            }
+            socketChannel.flush();
+        }
+    }
+
+    /**
+     * Defers flushing client writes made by the current thread until {@link #flushPending()} is called.
+     */
+    public static void startCoalescing() {
+        if (!ServerConfig.COALESCE_CLIENT_WRITES) {
+            return;
+        }
+        pendingFlush.get().active = true;
+    }
+
+    /**
+     * Flushes each client written to by the current thread since {@link #startCoalescing()} once.
+     */
+    public static void flushPending() {
+        final PendingFlush pending = pendingFlush.get();
+        if (!pending.active) {
+            return;
+        }
+        pending.active = false;
+        for (NettyClient client : pending.clients) {
+            client.socketChannel.flush();
+        }
+        pending.clients.clear();
+    }
+
+    private static final class PendingFlush {
+        private final Set<NettyClient> clients = new HashSet<>();
+        private boolean active = false;
+    }
 }
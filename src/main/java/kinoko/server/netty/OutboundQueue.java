@@ -0,0 +1,157 @@
+package kinoko.server.netty;
+
+import kinoko.server.header.OutHeader;
+import kinoko.server.packet.EncodedPacket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds low priority packets for a client whose channel is not writable, i.e. the outbound buffer is above the high
+ * water mark. Only packets that are superseded by a later packet with the same header and object ID are held, such as
+ * remote movement and HP indicators, and a newer packet replaces the held one. Every other packet is written as usual,
+ * so that stat, inventory and migration packets are always delivered in order, but behind the held packets, as they may
+ * refer to an object that the packet removes from the field.
+ */
+public final class OutboundQueue {
+    private static final Set<OutHeader> supersededHeaders = Collections.unmodifiableSet(EnumSet.of(
+            OutHeader.UserMove,
+            OutHeader.PetMove,
+            OutHeader.DragonMove,
+            OutHeader.SummonedMove,
+            OutHeader.MobMove,
+            OutHeader.NpcMove,
+            OutHeader.UserHP,
+            OutHeader.MobHPIndicator,
+            OutHeader.UserEmotion
+    ));
+    private static final LongAdder slowConsumerCount = new LongAdder();
+    private static final LongAdder supersededCount = new LongAdder();
+    private static final LongAdder slowConsumerDisconnectCount = new LongAdder();
+    private final Map<HeldKey, EncodedPacket> heldPackets = new LinkedHashMap<>();
+    private long unwritableSince = 0;
+
+    /**
+     * Holds the packet if the channel is not writable and the packet can be superseded. Otherwise, the packet is written
+     * after the held packets, so that a held movement packet is not written after the object left the field.
+     *
+     * @return the packets to write in order, empty if the packet was held.
+     */
+    public synchronized List<EncodedPacket> submit(EncodedPacket outPacket, boolean writable) {
+        if (!writable && offer(outPacket)) {
+            return List.of();
+        }
+        if (heldPackets.isEmpty()) {
+            return List.of(outPacket);
+        }
+        final List<EncodedPacket> packets = new ArrayList<>(heldPackets.size() + 1);
+        packets.addAll(heldPackets.values());
+        packets.add(outPacket);
+        heldPackets.clear();
+        return packets;
+    }
+
+    /**
+     * Holds the packet if it can be superseded, replacing an older held packet for the same object.
+     *
+     * @return true if the packet was held, false if it should be written.
+     */
+    public synchronized boolean offer(EncodedPacket outPacket) {
+        final OutHeader header = outPacket.getHeader();
+        if (header == null || !supersededHeaders.contains(header)) {
+            return false;
+        }
+        final HeldKey key = getHeldKey(header, outPacket);
+        if (key == null) {
+            return false;
+        }
+        if (heldPackets.put(key, outPacket) != null) {
+            supersededCount.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the held packets, in the order their objects were first held.
+     */
+    public synchronized List<EncodedPacket> drain() {
+        if (heldPackets.isEmpty()) {
+            return List.of();
+        }
+        final List<EncodedPacket> packets = new ArrayList<>(heldPackets.values());
+        heldPackets.clear();
+        return packets;
+    }
+
+    public synchronized int getHeldCount() {
+        return heldPackets.size();
+    }
+
+    /**
+     * Records the start of a slow consumer event.
+     *
+     * @return the time the channel became unwritable, used to check whether the channel stayed unwritable.
+     */
+    public synchronized long onUnwritable(long now) {
+        if (unwritableSince == 0) {
+            unwritableSince = now;
+            slowConsumerCount.increment();
+        }
+        return unwritableSince;
+    }
+
+    public synchronized void onWritable() {
+        unwritableSince = 0;
+    }
+
+    /**
+     * @return true if the channel has not become writable since the given time returned by {@link #onUnwritable(long)}.
+     */
+    public synchronized boolean isUnwritableSince(long since) {
+        return unwritableSince != 0 && unwritableSince == since;
+    }
+
+    /**
+     * Creates the key of a superseded packet from the header and the object IDs following the header. Pet and summoned
+     * movement is sent per pet index and summoned ID for the same character, so the second ID is part of the key.
+     *
+     * @return the key, or null if the packet is too short to contain the object IDs.
+     */
+    private static HeldKey getHeldKey(OutHeader header, EncodedPacket outPacket) {
+        final int size = outPacket.getSize();
+        if (size < 6) {
+            return null;
+        }
+        final int objectId = outPacket.getInt(2);
+        return switch (header) {
+            case PetMove -> size < 7 ? null : new HeldKey(header, objectId, outPacket.getByte(6)); // dwCharacterID, nIdx
+            case SummonedMove -> size < 10 ? null : new HeldKey(header, objectId, outPacket.getInt(6)); // dwCharacterID, dwSummonedID
+            default -> new HeldKey(header, objectId, 0);
+        };
+    }
+
+    public static long getSlowConsumerCount() {
+        return slowConsumerCount.sum();
+    }
+
+    public static long getSupersededCount() {
+        return supersededCount.sum();
+    }
+
+    public static long getSlowConsumerDisconnectCount() {
+        return slowConsumerDisconnectCount.sum();
+    }
+
+    static void recordSlowConsumerDisconnect() {
+        slowConsumerDisconnectCount.increment();
+    }
+
+    private record HeldKey(OutHeader header, int objectId, int subId) {
+    }
+}
@@ -0,0 +1,239 @@
+package kinoko.server.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import kinoko.server.ServerConfig;
+import kinoko.server.ServerConstants;
+import kinoko.server.packet.InPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the decrypted inbound packets of a single connection to a capture file, which can be fed back to a server
+ * with {@link kinoko.util.tool.bot.LoadGenerator}. Records are buffered on the channel event loop and written to disk by
+ * a single shared writer thread, so the event loop does not block on file I/O. Instances are confined to the event loop
+ * of the owning channel.
+ * <p>
+ * File format (little-endian) :
+ * <pre>
+ * int      magic ("KCAP")
+ * short    format version
+ * short    game version
+ * long     capture start time (epoch milliseconds)
+ * repeated :
+ *   varint   time since previous record (microseconds)
+ *   varint   packet length
+ *   byte[]   packet data, including the opcode
+ * </pre>
+ */
+public final class PacketCapture {
+    private static final Logger log = LogManager.getLogger(PacketCapture.class);
+    public static final String FILE_EXTENSION = ".kcap";
+    public static final int MAGIC = 0x5041434B; // "KCAP"
+    public static final short FORMAT_VERSION = 1;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final AtomicInteger captureCounter = new AtomicInteger();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "packet-capture");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Path path;
+    private final ByteBuf buffer = Unpooled.buffer(FLUSH_THRESHOLD);
+    private FileChannel fileChannel; // only accessed by the writer thread
+    private long lastTime;
+    private boolean closed;
+
+    private PacketCapture(Path path, long startTime, long startMillis) {
+        this.path = path;
+        this.lastTime = startTime;
+        buffer.writeIntLE(MAGIC);
+        buffer.writeShortLE(FORMAT_VERSION);
+        buffer.writeShortLE(ServerConstants.GAME_VERSION);
+        buffer.writeLongLE(startMillis);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void record(InPacket inPacket) {
+        if (closed) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final byte[] data = inPacket.getData();
+        writeVarInt(buffer, TimeUnit.NANOSECONDS.toMicros(now - lastTime));
+        writeVarInt(buffer, data.length);
+        buffer.writeBytes(data);
+        lastTime = now;
+        if (buffer.readableBytes() >= FLUSH_THRESHOLD) {
+            flush(false);
+        }
+    }
+
+    /**
+     * Stops recording and writes the remaining data to the capture file.
+     *
+     * @return a {@link Future} that completes when the capture file has been closed.
+     */
+    public Future<?> close() {
+        if (closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        closed = true;
+        return flush(true);
+    }
+
+    private Future<?> flush(boolean close) {
+        final byte[] data = ByteBufUtil.getBytes(buffer);
+        buffer.clear();
+        return writer.submit(() -> {
+            try {
+                if (fileChannel == null) {
+                    Files.createDirectories(path.getParent());
+                    fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                }
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+                while (byteBuffer.hasRemaining()) {
+                    fileChannel.write(byteBuffer);
+                }
+                if (close) {
+                    fileChannel.close();
+                }
+            } catch (IOException e) {
+                log.error("Exception caught while writing packet capture {}", path, e);
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Creates a capture for a new connection, or returns null if packet capture is disabled.
+     */
+    public static PacketCapture create(String prefix) {
+        if (!ServerConfig.PACKET_CAPTURE) {
+            return null;
+        }
+        final long startMillis = System.currentTimeMillis();
+        final String fileName = String.format("%s-%d-%d%s", prefix, startMillis, captureCounter.incrementAndGet(), FILE_EXTENSION);
+        return new PacketCapture(Path.of(ServerConfig.PACKET_CAPTURE_DIRECTORY, fileName), System.nanoTime(), startMillis);
+    }
+
+    static PacketCapture create(Path path) {
+        return new PacketCapture(path, System.nanoTime(), System.currentTimeMillis());
+    }
+
+    /**
+     * Waits for pending capture data to be written to disk.
+     */
+    public static void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(ServerConfig.SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+            log.error("Timed out while waiting for packet capture writer to terminate");
+        }
+    }
+
+
+    // HELPER METHODS --------------------------------------------------------------------------------------------------
+
+    private static void writeVarInt(ByteBuf buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.writeByte((int) value);
+    }
+
+    private static long readVarInt(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in packet capture");
+    }
+
+
+    // READER ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param time time of the record in microseconds, relative to the start of the capture.
+     * @param data packet data, including the opcode.
+     */
+    public record Record(long time, byte[] data) {
+    }
+
+    public static final class Reader implements AutoCloseable {
+        private final DataInputStream in;
+        private final short gameVersion;
+        private final long startMillis;
+        private long time;
+
+        public Reader(Path path) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+            final int magic = Integer.reverseBytes(in.readInt());
+            final short formatVersion = Short.reverseBytes(in.readShort());
+            if (magic != MAGIC || formatVersion != FORMAT_VERSION) {
+                in.close();
+                throw new IOException(String.format("Unsupported packet capture %s", path));
+            }
+            this.gameVersion = Short.reverseBytes(in.readShort());
+            this.startMillis = Long.reverseBytes(in.readLong());
+        }
+
+        public short getGameVersion() {
+            return gameVersion;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        /**
+         * @return the next record in the capture, or null if the end of the capture was reached. A record that was
+         * only partially written is treated as the end of the capture.
+         */
+        public Record next() throws IOException {
+            try {
+                final long delta = readVarInt(in);
+                final int length = (int) readVarInt(in);
+                final byte[] data = new byte[length];
+                in.readFully(data);
+                time += delta;
+                return new Record(time, data);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -5,8 +5,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import kinoko.server.ServerConstants;
 import kinoko.server.node.ServerExecutor;
+import kinoko.server.packet.ByteBufInPacket;
 import kinoko.server.packet.InPacket;
-import kinoko.server.packet.NioBufferInPacket;
 import kinoko.util.crypto.IGCipher;
 import kinoko.util.crypto.MapleCrypto;
 import kinoko.util.crypto.ShandaCrypto;
@@ -18,6 +18,19 @@ import java.util.List;
 public final class PacketDecoder extends ByteToMessageDecoder {
     public static final short RECV_VERSION = ServerConstants.GAME_VERSION;
     private static final Logger log = LogManager.getLogger(PacketDecoder.class);
+    private final short version;
+
+    public PacketDecoder() {
+        this(RECV_VERSION);
+    }
+
+    /**
+     * @param version the version expected in the packet header, {@link PacketEncoder#SEND_VERSION} when decoding packets
+     *                from the client side.
+     */
+    public PacketDecoder(short version) {
+        this.version = version;
+    }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
@@ -30,27 +43,32 @@ public final class PacketDecoder extends ByteToMessageDecoder {
             if (in.readableBytes() < 4) {
                 return;
             }
-            final byte[] header = new byte[4];
-            in.readBytes(header);
+            final int rawSeq = in.readUnsignedShortLE();
+            final int dataLen = in.readUnsignedShortLE();
 
-            final int version = ((header[0] ^ iv[2]) & 0xFF) | (((header[1] ^ iv[3]) << 8) & 0xFF00);
-            if (version != RECV_VERSION) {
+            final int version = rawSeq ^ ((iv[2] & 0xFF) | ((iv[3] << 8) & 0xFF00));
+            if (version != (this.version & 0xFFFF)) {
                 log.warn("Incorrect packet seq, dropping client");
                 ServerExecutor.submitService(c::close);
                 return;
             }
-            final int length = ((header[0] ^ header[2]) & 0xFF) | (((header[1] ^ header[3]) << 8) & 0xFF00);
+            final int length = rawSeq ^ dataLen;
             c.setStoredLength(length);
         } else if (in.readableBytes() >= c.getStoredLength()) {
-            final byte[] data = new byte[c.getStoredLength()];
-            in.readBytes(data);
+            final int length = c.getStoredLength();
             c.setStoredLength(-1);
 
-            MapleCrypto.crypt(data, iv);
-            ShandaCrypto.decrypt(data);
+            // Always copied into a small pooled heap buffer, which is decrypted in place. The cumulation buffer is direct
+            // with the default allocator, so the ciphers cannot access its array, and a retained slice would pin the
+            // cumulation buffer until the handler releases the packet and force the cumulator to copy on every merge.
+            final ByteBuf data = ctx.alloc().heapBuffer(length);
+            in.readBytes(data, length);
+            final int offset = data.arrayOffset() + data.readerIndex();
+            MapleCrypto.crypt(data.array(), offset, length, iv);
+            ShandaCrypto.decrypt(data.array(), offset, length);
             c.setRecvIv(IGCipher.innoHash(iv));
 
-            final InPacket inPacket = new NioBufferInPacket(data);
+            final InPacket inPacket = new ByteBufInPacket(data);
             out.add(inPacket);
         }
     }
@@ -6,8 +6,10 @@ import io.netty.handler.codec.MessageToByteEncoder;
 import kinoko.server.ServerConfig;
 import kinoko.server.ServerConstants;
 import kinoko.server.header.OutHeader;
-import kinoko.server.packet.OutPacket;
-import kinoko.util.Util;
+import kinoko.server.metrics.PacketMetrics;
+import kinoko.server.packet.BroadcastPacket;
+import kinoko.server.packet.EncodedPacket;
+import kinoko.server.packet.PacketSizeEstimator;
 import kinoko.util.crypto.IGCipher;
 import kinoko.util.crypto.MapleCrypto;
 import kinoko.util.crypto.ShandaCrypto;
@@ -15,36 +17,68 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-public final class PacketEncoder extends MessageToByteEncoder<OutPacket> {
+public final class PacketEncoder extends MessageToByteEncoder<EncodedPacket> {
     public static final short SEND_VERSION = (short) (0xFFFF - ServerConstants.GAME_VERSION);
     private static final Logger log = LogManager.getLogger(PacketEncoder.class);
+    private final short version;
+
+    public PacketEncoder() {
+        this(SEND_VERSION);
+    }
+
+    /**
+     * @param version the version encoded in the packet header, {@link PacketDecoder#RECV_VERSION} when encoding packets
+     *                from the client side.
+     */
+    public PacketEncoder(short version) {
+        this.version = version;
+    }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, OutPacket outPacket, ByteBuf out) {
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, EncodedPacket outPacket, boolean preferDirect) {
+        // Ciphers operate on the backing array of the pooled buffer, the packet is encrypted in place
+        return ctx.alloc().heapBuffer(4 + outPacket.getSize());
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, EncodedPacket outPacket, ByteBuf out) {
         final NettyClient c = ctx.channel().attr(NettyClient.CLIENT_KEY).get();
         final OutHeader header = outPacket.getHeader();
-        final byte[] data = outPacket.getData();
+        final int length = outPacket.getSize();
+        if (header != null) {
+            PacketMetrics.recordOutbound(header, length);
+            if (version == SEND_VERSION) {
+                // Includes broadcast packets, which are written from the shared encrypted data
+                PacketSizeEstimator.record(header, length);
+            }
+        }
         if (c == null) {
-            log.log(ServerConfig.DEBUG_MODE && !header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "[Out] | Plain sending " + Util.readableByteArray(data));
-            out.writeShortLE(data.length);
-            out.writeBytes(data);
+            log.log(ServerConfig.DEBUG_MODE && header != null && !header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "[Out] | Plain sending {}", outPacket);
+            out.writeShortLE(length);
+            outPacket.writeTo(out);
             return;
         }
         c.acquireEncoderState();
         try {
-            log.log(ServerConfig.DEBUG_MODE && !header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "[Out] | {}", outPacket);
+            log.log(ServerConfig.DEBUG_MODE && header != null && !header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "[Out] | {}", outPacket);
             final byte[] iv = c.getSendIv();
-            final int rawSeq = ((iv[2] & 0xFF) | ((iv[3] << 8) & 0xFF00)) ^ SEND_VERSION;
-            final int dataLen = data.length ^ rawSeq;
+            final int rawSeq = ((iv[2] & 0xFF) | ((iv[3] << 8) & 0xFF00)) ^ version;
+            final int dataLen = length ^ rawSeq;
 
             out.writeShortLE(rawSeq);
             out.writeShortLE(dataLen);
 
-            ShandaCrypto.encrypt(data);
-            MapleCrypto.crypt(data, iv);
+            final int index = out.writerIndex();
+            if (outPacket instanceof BroadcastPacket broadcastPacket) {
+                // Shanda stage is shared between recipients, only the IV dependent stage is applied to the copy
+                out.writeBytes(broadcastPacket.getEncryptedData());
+                MapleCrypto.crypt(out.array(), out.arrayOffset() + index, length, iv);
+            } else {
+                outPacket.writeTo(out);
+                ShandaCrypto.encrypt(out.array(), out.arrayOffset() + index, length);
+                MapleCrypto.crypt(out.array(), out.arrayOffset() + index, length, iv);
+            }
             c.setSendIv(IGCipher.innoHash(iv));
-
-            out.writeBytes(data);
         } finally {
             c.releaseEncoderState();
         }
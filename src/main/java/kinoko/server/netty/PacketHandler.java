@@ -2,9 +2,11 @@ package kinoko.server.netty;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.ReferenceCountUtil;
 import kinoko.handler.Handler;
 import kinoko.server.ServerConfig;
 import kinoko.server.header.InHeader;
+import kinoko.server.metrics.PacketMetrics;
 import kinoko.server.node.Client;
 import kinoko.server.node.ServerExecutor;
 import kinoko.server.packet.InPacket;
@@ -14,49 +16,74 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.EnumMap;
-import java.util.Map;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
 
 public abstract class PacketHandler extends SimpleChannelInboundHandler<InPacket> {
     private static final Logger log = LogManager.getLogger(PacketHandler.class);
-    private final Map<InHeader, Method> handlerMap;
+    private final HandlerMethod[] handlers; // indexed by InHeader ordinal
 
-    protected PacketHandler(Map<InHeader, Method> handlerMap) {
-        this.handlerMap = handlerMap;
+    protected PacketHandler(HandlerMethod[] handlers) {
+        super(false); // InPacket is released after the handler is executed
+        this.handlers = handlers;
     }
 
     @Override
     public final void channelRead0(ChannelHandlerContext ctx, InPacket inPacket) {
         final Client client = (Client) ctx.channel().attr(NettyClient.CLIENT_KEY).get();
+        if (inPacket.getRemaining() < 2) {
+            log.error("Received packet without opcode");
+            ReferenceCountUtil.release(inPacket);
+            return;
+        }
+        if (client.getPacketCapture() != null) {
+            client.getPacketCapture().record(inPacket);
+        }
+        final int length = inPacket.getRemaining();
         final short op = inPacket.decodeShort();
         final InHeader header = InHeader.getByValue(op);
         if (header == null) {
             log.error("Unknown opcode {} | {}", Util.opToString(op), inPacket);
+            ReferenceCountUtil.release(inPacket);
             return;
         }
-        final Method handler = handlerMap.get(header);
-        if (handler == null) {
-            log.log(!header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "Unhandled header {}({}) | {}", header, Util.opToString(op), inPacket);
+        PacketMetrics.recordInbound(header, length);
+        final FloodControl floodControl = client.getFloodControl();
+        final FloodControl.Policy policy = floodControl.check(header);
+        if (policy == null) {
+            dispatch(client, header, inPacket);
             return;
         }
-        log.log(ServerConfig.DEBUG_MODE && !header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "[In]  | {}({}) {}", header, Util.opToString(op), inPacket);
-        ServerExecutor.submit(client, () -> {
-            try {
-                if (handler.getParameterTypes()[0] == Client.class) {
-                    handler.invoke(null, client, inPacket);
-                } else if (handler.getParameterTypes()[0] == User.class) {
-                    handler.invoke(null, client.getUser(), inPacket);
-                } else {
-                    throw new IllegalStateException("Handler with incorrect parameter types.");
+        switch (policy) {
+            case DROP -> {
+                log.debug("Dropped packet {}({}) from client exceeding rate limit", header, Util.opToString(op));
+                ReferenceCountUtil.release(inPacket);
+            }
+            case DELAY -> {
+                if (!floodControl.offerDelayed(header, inPacket)) {
+                    log.warn("Closing client exceeding rate limit with {} delayed packets", floodControl.getDelayedCount());
+                    ReferenceCountUtil.release(inPacket);
+                    ctx.close();
+                    return;
+                }
+                if (floodControl.getDelayedCount() == 1) {
+                    // Stop reading from the socket until the delayed packets have been dispatched
+                    ctx.channel().config().setAutoRead(false);
+                    scheduleDelayed(ctx, client, floodControl.getRejectDelay());
                 }
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                log.error("Exception caught while invoking packet handler", e);
-                e.printStackTrace();
             }
-        });
+            case DISCONNECT -> {
+                log.warn("Closing client exceeding rate limit for {}({})", header, Util.opToString(op));
+                ReferenceCountUtil.release(inPacket);
+                ctx.close();
+            }
+        }
     }
 
     @Override
@@ -64,19 +91,87 @@ public abstract class PacketHandler extends SimpleChannelInboundHandler<InPacket
         log.log(ServerConfig.DEBUG_MODE ? Level.DEBUG : Level.TRACE, "Channel inactive");
         final Client client = (Client) ctx.channel().attr(NettyClient.CLIENT_KEY).get();
         if (client != null) {
+            FloodControl.DelayedPacket delayedPacket;
+            while ((delayedPacket = client.getFloodControl().pollDelayed()) != null) {
+                ReferenceCountUtil.release(delayedPacket.inPacket());
+            }
+            if (client.getPacketCapture() != null) {
+                client.getPacketCapture().close();
+            }
             log.log(ServerConfig.DEBUG_MODE ? Level.DEBUG : Level.TRACE, "Closing client");
             ServerExecutor.submit(client, client::close);
         }
     }
 
+    @Override
+    public final void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        final NettyClient client = ctx.channel().attr(NettyClient.CLIENT_KEY).get();
+        if (client != null) {
+            client.onWritabilityChanged();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     public final void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         log.error("Exception caught while handling packet", cause);
         cause.printStackTrace();
     }
 
-    protected static Map<InHeader, Method> loadHandlers(Class<?>... handlerClasses) {
-        final Map<InHeader, Method> handlerMap = new EnumMap<>(InHeader.class);
+    private void dispatch(Client client, InHeader header, InPacket inPacket) {
+        final HandlerMethod handler = handlers[header.ordinal()];
+        if (handler == null) {
+            log.log(!header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "Unhandled header {}({}) | {}", header, Util.opToString(header.getValue()), inPacket);
+            ReferenceCountUtil.release(inPacket);
+            return;
+        }
+        log.log(ServerConfig.DEBUG_MODE && !header.isIgnoreHeader() ? Level.DEBUG : Level.TRACE, "[In]  | {}({}) {}", header, Util.opToString(header.getValue()), inPacket);
+        final long submitTime = System.nanoTime();
+        ServerExecutor.submit(client, () -> {
+            final long startTime = System.nanoTime();
+            try {
+                handler.handle(client, inPacket);
+            } catch (Exception e) {
+                log.error("Exception caught while invoking packet handler", e);
+                e.printStackTrace();
+            } finally {
+                ReferenceCountUtil.release(inPacket);
+                PacketMetrics.recordHandled(header, startTime - submitTime, System.nanoTime() - startTime);
+            }
+        });
+    }
+
+    private void scheduleDelayed(ChannelHandlerContext ctx, Client client, long delay) {
+        ctx.executor().schedule(() -> dispatchDelayed(ctx, client), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void dispatchDelayed(ChannelHandlerContext ctx, Client client) {
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+        final FloodControl floodControl = client.getFloodControl();
+        FloodControl.DelayedPacket delayedPacket;
+        while ((delayedPacket = floodControl.peekDelayed()) != null) {
+            final long delay = floodControl.tryAcquire(delayedPacket.header(), System.nanoTime());
+            if (delay > 0) {
+                scheduleDelayed(ctx, client, delay);
+                return;
+            }
+            floodControl.pollDelayed();
+            dispatch(client, delayedPacket.header(), delayedPacket.inPacket());
+        }
+        ctx.channel().config().setAutoRead(true);
+    }
+
+    /**
+     * Scans the given classes for {@link Handler} methods and binds each of them to a {@link HandlerMethod} using
+     * {@link LambdaMetafactory}, so that packets are dispatched with a direct call instead of {@link Method#invoke}.
+     *
+     * @return an array of {@link HandlerMethod} indexed by {@link InHeader#ordinal()}, with null for unhandled headers.
+     */
+    protected static HandlerMethod[] loadHandlers(Class<?>... handlerClasses) {
+        final HandlerMethod[] handlers = new HandlerMethod[InHeader.values().length];
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
         for (Class<?> clazz : handlerClasses) {
             for (Method method : clazz.getDeclaredMethods()) {
                 if (!method.isAnnotationPresent(Handler.class)) {
@@ -86,15 +181,47 @@ public abstract class PacketHandler extends SimpleChannelInboundHandler<InPacket
                         method.getParameterTypes()[1] != InPacket.class) {
                     throw new RuntimeException(String.format("Incorrect parameters for handler method \"%s\"", method.getName()));
                 }
+                if (!Modifier.isStatic(method.getModifiers()) || method.getReturnType() != void.class) {
+                    throw new RuntimeException(String.format("Handler method \"%s\" should be static and return void", method.getName()));
+                }
+                final HandlerMethod handlerMethod = createHandlerMethod(lookup, method);
                 Handler annotation = method.getAnnotation(Handler.class);
                 for (InHeader header : annotation.value()) {
-                    if (handlerMap.containsKey(header)) {
+                    if (handlers[header.ordinal()] != null) {
                         throw new RuntimeException(String.format("Multiple handlers found for InHeader \"%s\"", header.name()));
                     }
-                    handlerMap.put(header, method);
+                    handlers[header.ordinal()] = handlerMethod;
                 }
             }
         }
-        return Collections.unmodifiableMap(handlerMap);
+        return handlers;
+    }
+
+    private static HandlerMethod createHandlerMethod(MethodHandles.Lookup lookup, Method method) {
+        try {
+            final MethodHandle methodHandle = lookup.unreflect(method);
+            if (method.getParameterTypes()[0] == Client.class) {
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "handle", MethodType.methodType(HandlerMethod.class),
+                        MethodType.methodType(void.class, Client.class, InPacket.class), methodHandle, methodHandle.type());
+                return (HandlerMethod) callSite.getTarget().invokeExact();
+            } else {
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "handle", MethodType.methodType(UserHandlerMethod.class),
+                        MethodType.methodType(void.class, User.class, InPacket.class), methodHandle, methodHandle.type());
+                final UserHandlerMethod userHandlerMethod = (UserHandlerMethod) callSite.getTarget().invokeExact();
+                return (client, inPacket) -> userHandlerMethod.handle(client.getUser(), inPacket);
+            }
+        } catch (Throwable e) {
+            throw new RuntimeException(String.format("Could not bind handler method \"%s\"", method.getName()), e);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface HandlerMethod {
+        void handle(Client client, InPacket inPacket);
+    }
+
+    @FunctionalInterface
+    private interface UserHandlerMethod {
+        void handle(User user, InPacket inPacket);
     }
 }
@@ -1,9 +1,12 @@
 package kinoko.server.node;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.local.LocalAddress;
 import io.netty.channel.socket.SocketChannel;
 import kinoko.packet.CentralPacket;
+import kinoko.server.ServerConfig;
 import kinoko.server.ServerConstants;
 import kinoko.server.guild.Guild;
 import kinoko.server.guild.GuildMember;
@@ -14,9 +17,11 @@ import kinoko.server.messenger.MessengerStorage;
 import kinoko.server.messenger.MessengerUser;
 import kinoko.server.migration.MigrationInfo;
 import kinoko.server.migration.MigrationStorage;
+import kinoko.server.netty.CentralFlushHandler;
 import kinoko.server.netty.CentralPacketDecoder;
 import kinoko.server.netty.CentralPacketEncoder;
 import kinoko.server.netty.CentralServerHandler;
+import kinoko.server.netty.LocalPacketEncoder;
 import kinoko.server.netty.NettyContext;
 import kinoko.server.party.Party;
 import kinoko.server.party.PartyStorage;
@@ -32,6 +37,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 public final class CentralServerNode extends Node {
+    public static final LocalAddress LOCAL_ADDRESS = new LocalAddress("kinoko-central");
     private static final Logger log = LogManager.getLogger(CentralServerNode.class);
     private final ServerStorage serverStorage = new ServerStorage();
     private final MigrationStorage migrationStorage = new MigrationStorage();
@@ -43,6 +49,7 @@ public final class CentralServerNode extends Node {
     private final CompletableFuture<?> initializeFuture = new CompletableFuture<>();
     private final CompletableFuture<?> shutdownFuture = new CompletableFuture<>();
     private ChannelFuture centralServerFuture;
+    private ChannelFuture centralLocalFuture;
 
 
     // CHANNEL METHODS -------------------------------------------------------------------------------------------------
@@ -192,10 +199,22 @@ public final class CentralServerNode extends Node {
     public void initialize() throws InterruptedException {
         // Start central server
         final CentralServerNode self = this;
+        if (ServerConfig.CENTRAL_LOCAL_TRANSPORT) {
+            centralLocalFuture = startLocalServer(new ChannelInitializer<>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                    ch.pipeline().addLast(new LocalPacketEncoder(), new CentralServerHandler(self));
+                    ch.attr(RemoteServerNode.NODE_KEY).set(new RemoteServerNode(ch));
+                    ch.writeAndFlush(CentralPacket.initializeRequest());
+                }
+            }, LOCAL_ADDRESS);
+            centralLocalFuture.sync();
+            log.info("Central server listening on local address {}", LOCAL_ADDRESS);
+        }
         centralServerFuture = startServer(new ChannelInitializer<>() {
             @Override
             protected void initChannel(SocketChannel ch) {
-                ch.pipeline().addLast(new CentralPacketDecoder(), new CentralServerHandler(self), new CentralPacketEncoder());
+                ch.pipeline().addLast(new CentralFlushHandler(), new CentralPacketDecoder(), new CentralServerHandler(self), new CentralPacketEncoder());
                 ch.attr(NettyContext.CONTEXT_KEY).set(new NettyContext());
                 ch.attr(RemoteServerNode.NODE_KEY).set(new RemoteServerNode(ch));
                 ch.writeAndFlush(CentralPacket.initializeRequest());
@@ -229,6 +248,9 @@ public final class CentralServerNode extends Node {
 
         // Close central server
         centralServerFuture.channel().close().sync();
+        if (centralLocalFuture != null) {
+            centralLocalFuture.channel().close().sync();
+        }
         log.info("Central server closed");
     }
 }
@@ -6,7 +6,6 @@ import io.netty.channel.socket.SocketChannel;
 import kinoko.packet.CentralPacket;
 import kinoko.packet.stage.LoginPacket;
 import kinoko.server.ServerConfig;
-import kinoko.server.ServerConstants;
 import kinoko.server.event.EventManager;
 import kinoko.server.event.EventState;
 import kinoko.server.event.EventType;
@@ -19,6 +18,8 @@ import kinoko.server.messenger.MessengerRequest;
 import kinoko.server.migration.MigrationInfo;
 import kinoko.server.migration.TransferInfo;
 import kinoko.server.netty.*;
+import kinoko.server.packet.BroadcastPacket;
+import kinoko.server.packet.EncodedPacket;
 import kinoko.server.packet.OutPacket;
 import kinoko.server.party.PartyRequest;
 import kinoko.server.user.RemoteUser;
@@ -28,7 +29,6 @@ import kinoko.world.user.User;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.List;
 import java.util.Optional;
@@ -71,8 +71,7 @@ public final class ChannelServerNode extends ServerNode {
             e.printStackTrace();
             return null;
         });
-        final int requestId = getNewRequestId();
-        requestFutures.put(requestId, migrationRequestFuture);
+        final int requestId = registerRequest(migrationRequestFuture, Optional.empty());
         centralClientFuture.channel().writeAndFlush(CentralPacket.migrateRequest(requestId, accountId, characterId, machineId, clientKey));
     }
 
@@ -91,8 +90,7 @@ public final class ChannelServerNode extends ServerNode {
             e.printStackTrace();
             return null;
         });
-        final int requestId = getNewRequestId();
-        requestFutures.put(requestId, transferRequestFuture);
+        final int requestId = registerRequest(transferRequestFuture, Optional.empty());
         centralClientFuture.channel().writeAndFlush(CentralPacket.transferRequest(requestId, migrationInfo));
     }
 
@@ -150,8 +148,7 @@ public final class ChannelServerNode extends ServerNode {
             e.printStackTrace();
             return null;
         });
-        final int requestId = getNewRequestId();
-        requestFutures.put(requestId, userRequestFuture);
+        final int requestId = registerRequest(userRequestFuture, List.of());
         centralClientFuture.channel().writeAndFlush(CentralPacket.userQueryRequest(requestId, characterNames));
     }
 
@@ -162,8 +159,7 @@ public final class ChannelServerNode extends ServerNode {
             e.printStackTrace();
             return null;
         });
-        final int requestId = getNewRequestId();
-        requestFutures.put(requestId, userRequestFuture);
+        final int requestId = registerRequest(userRequestFuture, List.of());
         centralClientFuture.channel().writeAndFlush(CentralPacket.userQueryRequestAll(requestId));
     }
 
@@ -195,8 +191,9 @@ public final class ChannelServerNode extends ServerNode {
     }
 
     public void submitChannelPacketBroadcast(OutPacket outPacket) {
+        final EncodedPacket broadcastPacket = BroadcastPacket.from(outPacket);
         for (User user : clientStorage.getConnectedUsers()) {
-            user.write(outPacket);
+            user.write(broadcastPacket);
         }
     }
 
@@ -256,6 +253,7 @@ public final class ChannelServerNode extends ServerNode {
         // Initialize channel server classes
         speakerManager.initialize(clientStorage);
         eventManager.initialize(fieldStorage);
+        fieldStorage.initialize();
 
         // Start channel server
         final ChannelServerNode self = this;
@@ -267,6 +265,7 @@ public final class ChannelServerNode extends ServerNode {
                 c.setSendIv(getNewIv());
                 c.setRecvIv(getNewIv());
                 c.setClientKey(getNewClientKey());
+                c.setPacketCapture(PacketCapture.create(String.format("channel%d", channelId + 1)));
                 c.write(LoginPacket.connect(c.getRecvIv(), c.getSendIv()));
                 ch.attr(NettyClient.CLIENT_KEY).set(c);
             }
@@ -275,13 +274,7 @@ public final class ChannelServerNode extends ServerNode {
         log.info("Channel {} listening on port {}", channelId + 1, channelPort);
 
         // Start central client
-        centralClientFuture = startClient(new ChannelInitializer<>() {
-            @Override
-            protected void initChannel(SocketChannel ch) {
-                ch.pipeline().addLast(new CentralPacketDecoder(), new ChannelServerHandler(self), new CentralPacketEncoder());
-                ch.attr(NettyContext.CONTEXT_KEY).set(new NettyContext());
-            }
-        }, InetAddress.getByAddress(ServerConstants.CENTRAL_HOST), ServerConstants.CENTRAL_PORT);
+        centralClientFuture = startCentralClient(new ChannelServerHandler(self));
         centralClientFuture.sync();
     }
 
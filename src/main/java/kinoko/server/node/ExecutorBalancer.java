@@ -0,0 +1,253 @@
+package kinoko.server.node;
+
+import kinoko.server.ServerConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Assigns fields to game executors by measured load. New fields are placed on the executor with the lowest load, and
+ * every {@link ServerConfig#FIELD_REBALANCE_INTERVAL} seconds the busiest executor hands one of its fields to the least
+ * loaded executor if the difference in utilization is large enough. Load is the time spent running the tasks of a
+ * field, i.e. field ticks and packet handlers, smoothed over consecutive rebalance intervals.
+ */
+public final class ExecutorBalancer {
+    private static final Logger log = LogManager.getLogger(ExecutorBalancer.class);
+    private static final double SMOOTHING = 0.5; // weight of the latest interval
+    private static final double MIN_IMBALANCE = 0.1; // utilization difference between the busiest and least loaded executor
+    private static final int MAX_MIGRATIONS = 2; // per rebalance
+    private final LongAdder placementCount = new LongAdder();
+    private final LongAdder migrationCount = new LongAdder();
+    private final Set<FieldPlacement> placements = ConcurrentHashMap.newKeySet();
+    private final List<Set<FieldPlacement>> executorFields = new ArrayList<>();
+    private final int executorCount;
+    private final AtomicLongArray executorBusyNanos;
+    private final AtomicLongArray lastUpdateNanos; // duration of the last update pass of each executor
+    private final AtomicLongArray overrunCounts;
+    private final double[] executorLoads; // smoothed busy nanoseconds per rebalance
+    private volatile double[] utilization;
+    private long lastRebalance = System.nanoTime();
+
+    ExecutorBalancer(int executorCount) {
+        this.executorCount = executorCount;
+        this.executorBusyNanos = new AtomicLongArray(executorCount);
+        this.lastUpdateNanos = new AtomicLongArray(executorCount);
+        this.overrunCounts = new AtomicLongArray(executorCount);
+        for (int i = 0; i < executorCount; i++) {
+            executorFields.add(ConcurrentHashMap.newKeySet());
+        }
+        this.executorLoads = new double[executorCount];
+        this.utilization = new double[executorCount];
+    }
+
+    /**
+     * Creates the placement of a new field on the least loaded executor, or on the given executor if the field is pinned.
+     */
+    synchronized FieldPlacement place(int fieldId, int pinnedIndex) {
+        final FieldPlacement placement;
+        if (pinnedIndex >= 0) {
+            placement = new FieldPlacement(fieldId, pinnedIndex % executorCount, true);
+        } else {
+            placement = new FieldPlacement(fieldId, getLeastLoaded(), false);
+            placementCount.increment();
+        }
+        placements.add(placement);
+        executorFields.get(placement.getExecutorIndex()).add(placement);
+        return placement;
+    }
+
+    synchronized void remove(FieldPlacement placement) {
+        placements.remove(placement);
+        executorFields.forEach((fields) -> fields.remove(placement));
+    }
+
+    /**
+     * Removes the field from the tick loop of its executor until {@link #wake(FieldPlacement)} is called.
+     */
+    synchronized void hibernate(FieldPlacement placement) {
+        placement.setHibernated(true);
+        executorFields.forEach((fields) -> fields.remove(placement));
+    }
+
+    synchronized void wake(FieldPlacement placement) {
+        if (!placement.isHibernated()) {
+            return;
+        }
+        placement.setHibernated(false);
+        if (placements.contains(placement)) {
+            executorFields.get(placement.getExecutorIndex()).add(placement);
+        }
+    }
+
+    /**
+     * @return the fields assigned to the executor that are not hibernated, updated by the executor every tick.
+     */
+    Set<FieldPlacement> getFields(int executorIndex) {
+        return executorFields.get(executorIndex);
+    }
+
+    void recordUpdate(int executorIndex, long nanos, long budgetNanos) {
+        lastUpdateNanos.set(executorIndex, nanos);
+        if (nanos > budgetNanos) {
+            overrunCounts.incrementAndGet(executorIndex);
+            log.debug("Field updates on executor {} took {} ms", executorIndex, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    void recordBusy(FieldPlacement placement, int executorIndex, long nanos) {
+        placement.recordBusy(nanos);
+        executorBusyNanos.addAndGet(executorIndex, nanos);
+    }
+
+    /**
+     * Updates the measured loads and migrates fields away from the busiest executor, called periodically.
+     */
+    synchronized void rebalance() {
+        final long now = System.nanoTime();
+        final long elapsed = Math.max(now - lastRebalance, 1);
+        lastRebalance = now;
+        final double[] newUtilization = new double[executorCount];
+        for (int i = 0; i < executorCount; i++) {
+            final long busy = executorBusyNanos.getAndSet(i, 0);
+            newUtilization[i] = (double) busy / elapsed;
+            executorLoads[i] = smooth(executorLoads[i], busy);
+        }
+        utilization = newUtilization;
+        final List<FieldPlacement> fields = new ArrayList<>(placements);
+        for (FieldPlacement placement : fields) {
+            placement.setLoad(smooth(placement.getLoad(), placement.drainBusy()));
+        }
+        for (FieldPlacement moved : migrate(fields, executorLoads, elapsed * MIN_IMBALANCE)) {
+            executorFields.forEach((executorSet) -> executorSet.remove(moved));
+            if (placements.contains(moved) && !moved.isHibernated()) {
+                executorFields.get(moved.getExecutorIndex()).add(moved);
+            }
+            migrationCount.increment();
+        }
+    }
+
+    public double[] getUtilization() {
+        return utilization.clone();
+    }
+
+    public int[] getFieldCounts() {
+        final int[] counts = new int[executorCount];
+        for (int i = 0; i < executorCount; i++) {
+            counts[i] = executorFields.get(i).size();
+        }
+        return counts;
+    }
+
+    public int getHibernatedCount() {
+        return (int) placements.stream().filter(FieldPlacement::isHibernated).count();
+    }
+
+    public long[] getLastUpdateNanos() {
+        final long[] result = new long[executorCount];
+        for (int i = 0; i < executorCount; i++) {
+            result[i] = lastUpdateNanos.get(i);
+        }
+        return result;
+    }
+
+    public long[] getOverrunCounts() {
+        final long[] result = new long[executorCount];
+        for (int i = 0; i < executorCount; i++) {
+            result[i] = overrunCounts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the fields with the longest last update, slowest first.
+     */
+    public List<FieldPlacement> getSlowestFields(int limit) {
+        return placements.stream()
+                .sorted(Comparator.comparingLong(FieldPlacement::getLastUpdateNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public long getPlacementCount() {
+        return placementCount.sum();
+    }
+
+    public long getMigrationCount() {
+        return migrationCount.sum();
+    }
+
+
+    // HELPER METHODS --------------------------------------------------------------------------------------------------
+
+    private int getLeastLoaded() {
+        final int[] fieldCounts = getFieldCounts();
+        int leastLoaded = 0;
+        for (int i = 1; i < executorCount; i++) {
+            if (executorLoads[i] < executorLoads[leastLoaded] ||
+                    (executorLoads[i] == executorLoads[leastLoaded] && fieldCounts[i] < fieldCounts[leastLoaded])) {
+                leastLoaded = i;
+            }
+        }
+        return leastLoaded;
+    }
+
+    private static double smooth(double previous, long latest) {
+        return previous * (1 - SMOOTHING) + latest * SMOOTHING;
+    }
+
+    /**
+     * Moves fields from the busiest to the least loaded executor while the difference in load is above the threshold.
+     * The field with the load closest to half the difference is moved, which leaves the two executors closest to even.
+     * Fields with pending tasks are skipped until the next rebalance.
+     *
+     * @return the fields that were moved.
+     */
+    static List<FieldPlacement> migrate(List<FieldPlacement> fields, double[] executorLoads, double minImbalance) {
+        final List<FieldPlacement> migrated = new ArrayList<>();
+        while (migrated.size() < MAX_MIGRATIONS) {
+            int busiest = 0;
+            int leastLoaded = 0;
+            for (int i = 1; i < executorLoads.length; i++) {
+                if (executorLoads[i] > executorLoads[busiest]) {
+                    busiest = i;
+                }
+                if (executorLoads[i] < executorLoads[leastLoaded]) {
+                    leastLoaded = i;
+                }
+            }
+            final double imbalance = executorLoads[busiest] - executorLoads[leastLoaded];
+            if (imbalance < minImbalance) {
+                break;
+            }
+            final int source = busiest;
+            final List<FieldPlacement> candidates = fields.stream()
+                    .filter((placement) -> !placement.isPinned() && placement.getExecutorIndex() == source)
+                    .filter((placement) -> placement.getLoad() > 0 && placement.getLoad() < imbalance)
+                    .sorted(Comparator.comparingDouble((placement) -> Math.abs(imbalance / 2 - placement.getLoad())))
+                    .toList();
+            FieldPlacement moved = null;
+            for (FieldPlacement candidate : candidates) {
+                if (candidate.migrate(leastLoaded)) {
+                    moved = candidate;
+                    break;
+                }
+            }
+            if (moved == null) {
+                break;
+            }
+            log.debug("Moved field {} from executor {} to {}", moved.getFieldId(), busiest, leastLoaded);
+            executorLoads[busiest] -= moved.getLoad();
+            executorLoads[leastLoaded] += moved.getLoad();
+            migrated.add(moved);
+        }
+        return migrated;
+    }
+}
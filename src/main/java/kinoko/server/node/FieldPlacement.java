@@ -0,0 +1,129 @@
+package kinoko.server.node;
+
+import kinoko.world.field.Field;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Game executor assignment and measured load of a field. Tasks of the field are counted from submission until they have
+ * run, and the field is only moved to another executor while it has no pending tasks, so that the tasks of a field
+ * never run concurrently and keep their submission order.
+ */
+public final class FieldPlacement {
+    private final int fieldId;
+    private final boolean pinned;
+    private final AtomicLong busyNanos = new AtomicLong(); // since the last rebalance
+    private volatile Field field; // set once the field is ready to be updated
+    private volatile Runnable updateTask;
+    private volatile long lastUpdateNanos;
+    private volatile boolean hibernated;
+    private int executorIndex;
+    private int pendingTasks;
+    private long lastUpdateTime; // only accessed by the executor while acquired
+    private long nextUpdateTime;
+    private double load; // smoothed busy nanoseconds per rebalance, only accessed by the balancer
+
+    FieldPlacement(int fieldId, int executorIndex, boolean pinned) {
+        this.fieldId = fieldId;
+        this.executorIndex = executorIndex;
+        this.pinned = pinned;
+    }
+
+    public int getFieldId() {
+        return fieldId;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public synchronized int getExecutorIndex() {
+        return executorIndex;
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    Runnable getUpdateTask() {
+        return updateTask;
+    }
+
+    void setField(Field field) {
+        this.updateTask = field::update;
+        this.field = field;
+    }
+
+    long getNextUpdateTime() {
+        return nextUpdateTime;
+    }
+
+    void setUpdateTime(long lastUpdateTime, long nextUpdateTime) {
+        this.lastUpdateTime = lastUpdateTime;
+        this.nextUpdateTime = nextUpdateTime;
+    }
+
+    /**
+     * Brings the next update forward to one tick after the last update, called after a task has run on the field.
+     */
+    void onActivity(long tickNanos) {
+        nextUpdateTime = Math.min(nextUpdateTime, lastUpdateTime + tickNanos);
+    }
+
+    /**
+     * @return the duration of the last update of the field, in nanoseconds.
+     */
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+
+    void setLastUpdateNanos(long lastUpdateNanos) {
+        this.lastUpdateNanos = lastUpdateNanos;
+    }
+
+    public boolean isHibernated() {
+        return hibernated;
+    }
+
+    void setHibernated(boolean hibernated) {
+        this.hibernated = hibernated;
+    }
+
+    synchronized int acquire() {
+        pendingTasks++;
+        return executorIndex;
+    }
+
+    synchronized void release() {
+        pendingTasks--;
+    }
+
+    /**
+     * Moves the field to another executor if it is not pinned and has no pending tasks.
+     *
+     * @return true if the field was moved.
+     */
+    synchronized boolean migrate(int newExecutorIndex) {
+        if (pinned || pendingTasks > 0) {
+            return false;
+        }
+        executorIndex = newExecutorIndex;
+        return true;
+    }
+
+    void recordBusy(long nanos) {
+        busyNanos.addAndGet(nanos);
+    }
+
+    long drainBusy() {
+        return busyNanos.getAndSet(0);
+    }
+
+    double getLoad() {
+        return load;
+    }
+
+    void setLoad(double load) {
+        this.load = load;
+    }
+}
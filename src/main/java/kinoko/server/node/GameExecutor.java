@@ -0,0 +1,106 @@
+package kinoko.server.node;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-threaded executor for field tasks, with its own {@link TimingWheel} so that field and user timers run directly
+ * on the executor thread. The thread runs the queued tasks, then the expired timers, and parks until the next tick of
+ * the wheel or until a task is submitted.
+ */
+public final class GameExecutor implements Runnable {
+    private static final Logger log = LogManager.getLogger(GameExecutor.class);
+    private static final long TICK_DURATION = 10; // milliseconds
+    private static final int WHEEL_SIZE = 512; // ticks per rotation
+    private static final int MAX_TASKS = 1024; // tasks run between timer checks
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final TimingWheel timingWheel;
+    private final Thread thread;
+    private volatile boolean sleeping;
+    private volatile boolean shutdown;
+
+    public GameExecutor(String name) {
+        this.timingWheel = new TimingWheel(TICK_DURATION, TimeUnit.MILLISECONDS, WHEEL_SIZE, System.nanoTime());
+        this.thread = new Thread(this, name);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(thread);
+    }
+
+    public boolean inExecutor() {
+        return Thread.currentThread() == thread;
+    }
+
+    public void submit(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        tasks.offer(task);
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Adds the timeout to the timing wheel of this executor, the task of the timeout is run on the executor thread after
+     * the delay, rounded up to the next tick.
+     */
+    public void schedule(TimingWheel.Timeout timeout, long delay, TimeUnit timeUnit) {
+        timeout.setDeadline(System.nanoTime() + timeUnit.toNanos(delay));
+        if (inExecutor()) {
+            timingWheel.add(timeout);
+        } else {
+            submit(() -> timingWheel.add(timeout));
+        }
+    }
+
+    public int getTimerCount() {
+        return timingWheel.getSize();
+    }
+
+    @Override
+    public void run() {
+        while (!shutdown) {
+            runTasks(MAX_TASKS);
+            for (TimingWheel.Timeout timeout : timingWheel.advance(System.nanoTime())) {
+                if (!timeout.isCancelled()) {
+                    runTask(timeout.getTask());
+                }
+            }
+            sleeping = true;
+            if (tasks.isEmpty() && !shutdown) {
+                LockSupport.parkNanos(this, timingWheel.getNextTickTime() - System.nanoTime());
+            }
+            sleeping = false;
+        }
+        runTasks(Integer.MAX_VALUE);
+    }
+
+    private void runTasks(int maxTasks) {
+        Runnable task;
+        for (int i = 0; i < maxTasks && (task = tasks.poll()) != null; i++) {
+            runTask(task);
+        }
+    }
+
+    private static void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            log.error("Exception caught during execution : {}", e, e);
+            e.printStackTrace();
+        }
+    }
+}
@@ -14,7 +14,6 @@ import kinoko.world.user.Account;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Comparator;
 import java.util.List;
@@ -58,8 +57,7 @@ public final class LoginServerNode extends ServerNode {
     public void submitOnlineRequest(Account account, Consumer<Boolean> consumer) {
         final CompletableFuture<Boolean> onlineRequestFuture = new CompletableFuture<>();
         onlineRequestFuture.thenAccept(consumer);
-        final int requestId = getNewRequestId();
-        requestFutures.put(requestId, onlineRequestFuture);
+        final int requestId = registerRequest(onlineRequestFuture, true); // reject login if the central server does not respond
         centralClientFuture.channel().writeAndFlush(CentralPacket.onlineRequest(requestId, account.getId()));
     }
 
@@ -74,8 +72,7 @@ public final class LoginServerNode extends ServerNode {
     public void submitLoginRequest(MigrationInfo migrationInfo, Consumer<Optional<TransferInfo>> consumer) {
         final CompletableFuture<Optional<TransferInfo>> transferRequestFuture = new CompletableFuture<>();
         transferRequestFuture.thenAccept(consumer);
-        final int requestId = getNewRequestId();
-        requestFutures.put(requestId, transferRequestFuture);
+        final int requestId = registerRequest(transferRequestFuture, Optional.empty());
         centralClientFuture.channel().writeAndFlush(CentralPacket.transferRequest(requestId, migrationInfo));
     }
 
@@ -114,13 +111,7 @@ public final class LoginServerNode extends ServerNode {
         log.info("Login server listening on port {}", ServerConstants.LOGIN_PORT);
 
         // Start central client
-        centralClientFuture = startClient(new ChannelInitializer<>() {
-            @Override
-            protected void initChannel(SocketChannel ch) {
-                ch.pipeline().addLast(new CentralPacketDecoder(), new LoginServerHandler(self), new CentralPacketEncoder());
-                ch.attr(NettyContext.CONTEXT_KEY).set(new NettyContext());
-            }
-        }, InetAddress.getByAddress(ServerConstants.CENTRAL_HOST), ServerConstants.CENTRAL_PORT);
+        centralClientFuture = startCentralClient(new LoginServerHandler(self));
         centralClientFuture.sync();
     }
 
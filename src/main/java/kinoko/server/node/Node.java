@@ -2,24 +2,43 @@ package kinoko.server.node;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.*;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import kinoko.server.ServerConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.net.InetAddress;
 import java.util.concurrent.CompletableFuture;
 
 public abstract class Node {
-    private final EventLoopGroup bossGroup = new NioEventLoopGroup();
-    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
+    private static final Logger log = LogManager.getLogger(Node.class);
+    private static final boolean useEpoll = ServerConfig.NETTY_EPOLL && Epoll.isAvailable();
+    // Event loop groups are shared between all nodes in the process
+    private static final EventLoopGroup bossGroup = newEventLoopGroup(ServerConfig.NETTY_BOSS_THREADS);
+    private static final EventLoopGroup workerGroup = newEventLoopGroup(ServerConfig.NETTY_WORKER_THREADS);
     private final CompletableFuture<Void> shutdownFuture = new CompletableFuture<>();
     private boolean shutdown = false;
 
+    static {
+        if (ServerConfig.NETTY_EPOLL && !useEpoll) {
+            log.warn("Epoll transport is not available, falling back to NIO", Epoll.unavailabilityCause());
+        }
+        log.info("Using {} transport", useEpoll ? "epoll" : "NIO");
+    }
+
     public abstract void initialize() throws Exception;
 
     public abstract void shutdown() throws Exception;
@@ -39,20 +58,61 @@ public abstract class Node {
     protected final ChannelFuture startServer(ChannelInitializer<SocketChannel> initializer, int port) {
         final ServerBootstrap b = new ServerBootstrap();
         b.group(bossGroup, workerGroup);
-        b.channel(NioServerSocketChannel.class);
         b.childHandler(initializer);
         b.childOption(ChannelOption.TCP_NODELAY, true);
         b.childOption(ChannelOption.SO_KEEPALIVE, true);
+        b.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(ServerConfig.CLIENT_WRITE_BUFFER_LOW, ServerConfig.CLIENT_WRITE_BUFFER_HIGH));
+        if (useEpoll) {
+            b.channel(EpollServerSocketChannel.class);
+            b.option(EpollChannelOption.SO_REUSEPORT, ServerConfig.NETTY_SO_REUSEPORT);
+            b.childOption(EpollChannelOption.EPOLL_MODE, getEpollMode());
+        } else {
+            b.channel(NioServerSocketChannel.class);
+        }
         return b.bind(port);
     }
 
     protected final ChannelFuture startClient(ChannelInitializer<SocketChannel> initializer, InetAddress host, int port) {
         final Bootstrap b = new Bootstrap();
         b.group(workerGroup);
-        b.channel(NioSocketChannel.class);
         b.handler(initializer);
         b.option(ChannelOption.TCP_NODELAY, true);
         b.option(ChannelOption.SO_KEEPALIVE, true);
+        if (useEpoll) {
+            b.channel(EpollSocketChannel.class);
+            b.option(EpollChannelOption.EPOLL_MODE, getEpollMode());
+        } else {
+            b.channel(NioSocketChannel.class);
+        }
         return b.connect(host, port);
     }
+
+    protected final ChannelFuture startLocalServer(ChannelInitializer<Channel> initializer, LocalAddress address) {
+        final ServerBootstrap b = new ServerBootstrap();
+        b.group(workerGroup);
+        b.channel(LocalServerChannel.class);
+        b.childHandler(initializer);
+        return b.bind(address);
+    }
+
+    protected final ChannelFuture startLocalClient(ChannelInitializer<Channel> initializer, LocalAddress address) {
+        final Bootstrap b = new Bootstrap();
+        b.group(workerGroup);
+        b.channel(LocalChannel.class);
+        b.handler(initializer);
+        return b.connect(address);
+    }
+
+    public static void shutdownEventLoops() {
+        bossGroup.shutdownGracefully();
+        workerGroup.shutdownGracefully();
+    }
+
+    private static EventLoopGroup newEventLoopGroup(int threads) {
+        return useEpoll ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+    }
+
+    private static EpollMode getEpollMode() {
+        return ServerConfig.NETTY_EPOLL_EDGE_TRIGGERED ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+    }
 }
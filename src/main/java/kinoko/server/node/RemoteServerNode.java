@@ -1,6 +1,6 @@
 package kinoko.server.node;
 
-import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.Channel;
 import io.netty.util.AttributeKey;
 import kinoko.server.packet.OutPacket;
 
@@ -9,13 +9,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 public final class RemoteServerNode {
     public static final AttributeKey<RemoteServerNode> NODE_KEY = AttributeKey.valueOf("R");
     private final AtomicInteger userCount = new AtomicInteger(0);
-    private final SocketChannel socketChannel;
+    private final Channel channel;
     private int channelId;
     private byte[] channelHost;
     private int channelPort;
 
-    public RemoteServerNode(SocketChannel socketChannel) {
-        this.socketChannel = socketChannel;
+    public RemoteServerNode(Channel channel) {
+        this.channel = channel;
     }
 
     public int getChannelId() {
@@ -55,6 +55,6 @@ public final class RemoteServerNode {
     }
 
     public void write(OutPacket outPacket) {
-        socketChannel.writeAndFlush(outPacket);
+        channel.writeAndFlush(outPacket);
     }
 }
@@ -1,6 +1,8 @@
 package kinoko.server.node;
 
+import kinoko.server.ServerConfig;
 import kinoko.server.field.InstanceFieldStorage;
+import kinoko.server.netty.NettyClient;
 import kinoko.world.field.Field;
 import kinoko.world.user.User;
 import org.apache.logging.log4j.LogManager;
@@ -14,17 +16,28 @@ import java.util.concurrent.*;
 public final class ServerExecutor {
     private static final Logger log = LogManager.getLogger(ServerExecutor.class);
     private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    private static final List<ExecutorService> gameExecutors;
+    private static final List<GameExecutor> gameExecutors;
     private static final ExecutorService serviceExecutor;
+    private static final ExecutorBalancer executorBalancer;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(ServerConfig.FIELD_TICK_INTERVAL);
 
     static {
         final int executorCount = Runtime.getRuntime().availableProcessors();
-        final List<ExecutorService> executors = new ArrayList<>();
+        final List<GameExecutor> executors = new ArrayList<>();
         for (int i = 0; i < executorCount; i++) {
-            executors.add(Executors.newSingleThreadExecutor());
+            final GameExecutor executor = new GameExecutor("game-executor-" + i);
+            executor.start();
+            executors.add(executor);
         }
         gameExecutors = Collections.unmodifiableList(executors);
         serviceExecutor = Executors.newFixedThreadPool(executorCount);
+        executorBalancer = new ExecutorBalancer(executorCount);
+        for (int i = 0; i < executorCount; i++) {
+            scheduleFieldUpdates(i);
+        }
+        if (ServerConfig.FIELD_REBALANCE_INTERVAL > 0) {
+            scheduler.scheduleWithFixedDelay(executorBalancer::rebalance, ServerConfig.FIELD_REBALANCE_INTERVAL, ServerConfig.FIELD_REBALANCE_INTERVAL, TimeUnit.SECONDS);
+        }
     }
 
     public static void initialize() {
@@ -32,11 +45,16 @@ public final class ServerExecutor {
     }
 
     public static void shutdown() {
-        gameExecutors.forEach(ExecutorService::shutdown);
+        gameExecutors.forEach(GameExecutor::shutdown);
         serviceExecutor.shutdown();
     }
 
 
+    public static ExecutorBalancer getExecutorBalancer() {
+        return executorBalancer;
+    }
+
+
     // GAME EXECUTOR METHODS -------------------------------------------------------------------------------------------
 
     public static void submit(Client client, Runnable runnable) {
@@ -59,16 +77,75 @@ public final class ServerExecutor {
         wrapAndSubmit(field, runnable);
     }
 
-    public static ScheduledFuture<?> schedule(User user, Runnable runnable, long delay, TimeUnit timeUnit) {
-        return scheduler.schedule(() -> submit(user, runnable), delay, timeUnit);
+    /**
+     * Assigns a new field to a game executor. Instance fields are pinned to the executor of their instance, so that the
+     * fields of an instance share a thread, other fields are placed and moved according to their load.
+     */
+    public static FieldPlacement placeField(Field field) {
+        if (field.getFieldStorage() instanceof InstanceFieldStorage instanceFieldStorage) {
+            return executorBalancer.place(field.getFieldId(), instanceFieldStorage.getInstance().getInstanceId());
+        }
+        return executorBalancer.place(field.getFieldId(), -1);
+    }
+
+    /**
+     * Starts the periodic updates of the field, which are run by the tick loop of its executor.
+     */
+    public static void startUpdates(Field field) {
+        field.getPlacement().setField(field);
+    }
+
+    /**
+     * Stops the periodic updates of an idle field, until {@link #wakeField(Field)} is called.
+     */
+    public static void hibernateField(Field field) {
+        executorBalancer.hibernate(field.getPlacement());
+    }
+
+    public static void wakeField(Field field) {
+        executorBalancer.wake(field.getPlacement());
     }
 
-    public static ScheduledFuture<?> schedule(Field field, Runnable runnable, long delay, TimeUnit timeUnit) {
-        return scheduler.schedule(() -> submit(field, runnable), delay, timeUnit);
+    public static void removeField(Field field) {
+        executorBalancer.remove(field.getPlacement());
     }
 
-    public static ScheduledFuture<?> scheduleWithFixedDelay(Field field, Runnable runnable, long initialDelay, long delay, TimeUnit timeUnit) {
-        return scheduler.scheduleWithFixedDelay(() -> submit(field, runnable), initialDelay, delay, timeUnit);
+    public static TimingWheel.Timeout schedule(User user, Runnable runnable, long delay, TimeUnit timeUnit) {
+        final Field field = user.getField();
+        final GameExecutor executor = field != null ? gameExecutors.get(field.getPlacement().getExecutorIndex()) : gameExecutors.getFirst();
+        final TimingWheel.Timeout timeout = new TimingWheel.Timeout();
+        timeout.setTask(() -> {
+            if (user.getField() == null) {
+                submitService(runnable);
+            } else {
+                runOrSubmit(user.getField(), runnable);
+            }
+        });
+        executor.schedule(timeout, delay, timeUnit);
+        return timeout;
+    }
+
+    public static TimingWheel.Timeout schedule(Field field, Runnable runnable, long delay, TimeUnit timeUnit) {
+        final TimingWheel.Timeout timeout = new TimingWheel.Timeout();
+        timeout.setTask(() -> runOrSubmit(field, runnable));
+        scheduleTimeout(field, timeout, delay, timeUnit);
+        return timeout;
+    }
+
+    public static TimingWheel.Timeout scheduleWithFixedDelay(Field field, Runnable runnable, long initialDelay, long delay, TimeUnit timeUnit) {
+        final TimingWheel.Timeout timeout = new TimingWheel.Timeout();
+        timeout.setTask(() -> runOrSubmit(field, () -> {
+            try {
+                runnable.run();
+            } finally {
+                // Scheduled again on the current executor of the field, once the task has completed
+                if (!timeout.isCancelled()) {
+                    scheduleTimeout(field, timeout, delay, timeUnit);
+                }
+            }
+        }));
+        scheduleTimeout(field, timeout, initialDelay, timeUnit);
+        return timeout;
     }
 
 
@@ -90,24 +167,120 @@ public final class ServerExecutor {
     // HELPER METHODS --------------------------------------------------------------------------------------------------
 
     private static Runnable wrap(Runnable runnable) {
-        return () -> {
+        return () -> runWrapped(runnable);
+    }
+
+    private static void runWrapped(Runnable runnable) {
+        NettyClient.startCoalescing();
+        try {
+            runnable.run();
+        } catch (Exception e) {
+            log.error("Exception caught during execution : {}", e, e);
+            e.printStackTrace();
+        } finally {
+            NettyClient.flushPending();
+        }
+    }
+
+    /**
+     * Schedules the tick loop of the executor, which updates every field assigned to the executor in a single pass. The
+     * next pass is scheduled one tick interval after the start of the current pass, or immediately if the pass overran.
+     */
+    private static void scheduleFieldUpdates(int executorIndex) {
+        final GameExecutor executor = gameExecutors.get(executorIndex);
+        final TimingWheel.Timeout timeout = new TimingWheel.Timeout();
+        timeout.setTask(() -> {
+            final long start = System.nanoTime();
             try {
-                runnable.run();
-            } catch (Exception e) {
-                log.error("Exception caught during execution : {}", e, e);
-                e.printStackTrace();
+                updateFields(executorIndex);
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                executorBalancer.recordUpdate(executorIndex, elapsed, TICK_NANOS);
+                executor.schedule(timeout, Math.max(TICK_NANOS - elapsed, 0), TimeUnit.NANOSECONDS);
             }
-        };
+        });
+        executor.schedule(timeout, TICK_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Updates the fields of the executor that are due. Each field sets its own update interval, a field is updated in the
+     * first pass that starts within half a tick of its next update time.
+     */
+    private static void updateFields(int executorIndex) {
+        final long now = System.nanoTime();
+        for (FieldPlacement placement : executorBalancer.getFields(executorIndex)) {
+            final Field field = placement.getField();
+            if (field == null) {
+                continue;
+            }
+            if (placement.acquire() != executorIndex) {
+                // Moved to another executor since the field set was read
+                placement.release();
+                continue;
+            }
+            if (now + TICK_NANOS / 2 < placement.getNextUpdateTime()) {
+                placement.release();
+                continue;
+            }
+            final long start = System.nanoTime();
+            try {
+                runWrapped(placement.getUpdateTask());
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                placement.setUpdateTime(now, now + TimeUnit.MILLISECONDS.toNanos(field.getUpdateInterval()));
+                placement.setLastUpdateNanos(elapsed);
+                executorBalancer.recordBusy(placement, executorIndex, elapsed);
+                placement.release();
+            }
+        }
     }
 
     private static void wrapAndSubmit(Field field, Runnable runnable) {
-        if (field.getFieldStorage() instanceof InstanceFieldStorage instanceFieldStorage) {
-            gameExecutors.get(instanceFieldStorage.getInstance().getInstanceId() % gameExecutors.size()).submit(wrap(runnable));
+        final FieldPlacement placement = field.getPlacement();
+        final int executorIndex = placement.acquire();
+        submitMeasured(placement, executorIndex, wrap(runnable));
+    }
+
+    /**
+     * Runs the task of an expired timer. The task runs inline if the timer expired on the executor of the field, and is
+     * submitted to the executor of the field if the field has been moved since the timer was scheduled.
+     */
+    private static void runOrSubmit(Field field, Runnable runnable) {
+        final FieldPlacement placement = field.getPlacement();
+        final int executorIndex = placement.acquire();
+        if (gameExecutors.get(executorIndex).inExecutor()) {
+            measure(placement, executorIndex, wrap(runnable)).run();
         } else {
-            gameExecutors.get(field.getExecutorIndex() % gameExecutors.size()).submit(wrap(runnable));
+            submitMeasured(placement, executorIndex, wrap(runnable));
         }
     }
 
+    private static void submitMeasured(FieldPlacement placement, int executorIndex, Runnable wrapped) {
+        try {
+            gameExecutors.get(executorIndex).submit(measure(placement, executorIndex, wrapped));
+        } catch (RejectedExecutionException e) {
+            placement.release();
+            throw e;
+        }
+    }
+
+    private static Runnable measure(FieldPlacement placement, int executorIndex, Runnable wrapped) {
+        return () -> {
+            final long start = System.nanoTime();
+            try {
+                wrapped.run();
+            } finally {
+                executorBalancer.recordBusy(placement, executorIndex, System.nanoTime() - start);
+                placement.onActivity(TICK_NANOS);
+                placement.release();
+            }
+        };
+    }
+
+    private static void scheduleTimeout(Field field, TimingWheel.Timeout timeout, long delay, TimeUnit timeUnit) {
+        gameExecutors.get(field.getPlacement().getExecutorIndex()).schedule(timeout, delay, timeUnit);
+    }
+
     private static void wrapAndSubmitService(Runnable runnable) {
         serviceExecutor.submit(wrap(runnable));
     }
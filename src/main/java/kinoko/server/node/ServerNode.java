@@ -1,13 +1,32 @@
 package kinoko.server.node;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import kinoko.server.ServerConfig;
+import kinoko.server.ServerConstants;
+import kinoko.server.netty.*;
 import kinoko.util.Util;
 import kinoko.world.user.Account;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class ServerNode extends Node {
+    private static final Logger log = LogManager.getLogger(ServerNode.class);
+    private static final Timer requestTimer = new HashedWheelTimer(new DefaultThreadFactory("central-request", true), 100, TimeUnit.MILLISECONDS);
     protected static final AtomicInteger requestIdCounter = new AtomicInteger(1);
     protected final ConcurrentHashMap<Integer, CompletableFuture<?>> requestFutures = new ConcurrentHashMap<>();
     protected final ClientStorage clientStorage = new ClientStorage();
@@ -16,6 +35,26 @@ public abstract class ServerNode extends Node {
         return requestIdCounter.getAndIncrement();
     }
 
+    /**
+     * Registers a pending central request. If the result is not received within
+     * {@link ServerConfig#CENTRAL_REQUEST_TTL} seconds, the request is removed and the future is completed with the
+     * expired value on the service executor, so that a lost reply does not leak the future or stall the consumer.
+     *
+     * @return the request ID to be sent with the request.
+     */
+    protected final <T> int registerRequest(CompletableFuture<T> future, T expiredValue) {
+        final int requestId = getNewRequestId();
+        requestFutures.put(requestId, future);
+        final Timeout timeout = requestTimer.newTimeout((t) -> {
+            if (requestFutures.remove(requestId, future)) {
+                log.warn("Central request {} expired after {} seconds", requestId, ServerConfig.CENTRAL_REQUEST_TTL);
+                ServerExecutor.submitService(() -> future.complete(expiredValue));
+            }
+        }, ServerConfig.CENTRAL_REQUEST_TTL, TimeUnit.SECONDS);
+        future.whenComplete((result, e) -> timeout.cancel());
+        return requestId;
+    }
+
     public final boolean isConnected(Account account) {
         return clientStorage.isConnected(account);
     }
@@ -34,6 +73,27 @@ public abstract class ServerNode extends Node {
         }
     }
 
+    /**
+     * Connects to the central server node, through the in-process transport if enabled, or over TCP otherwise.
+     */
+    protected final ChannelFuture startCentralClient(ChannelHandler centralHandler) throws UnknownHostException {
+        if (ServerConfig.CENTRAL_LOCAL_TRANSPORT) {
+            return startLocalClient(new ChannelInitializer<>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                    ch.pipeline().addLast(new LocalPacketEncoder(), centralHandler);
+                }
+            }, CentralServerNode.LOCAL_ADDRESS);
+        }
+        return startClient(new ChannelInitializer<>() {
+            @Override
+            protected void initChannel(SocketChannel ch) {
+                ch.pipeline().addLast(new CentralFlushHandler(), new CentralPacketDecoder(), centralHandler, new CentralPacketEncoder());
+                ch.attr(NettyContext.CONTEXT_KEY).set(new NettyContext());
+            }
+        }, InetAddress.getByAddress(ServerConstants.CENTRAL_HOST), ServerConstants.CENTRAL_PORT);
+    }
+
     protected static byte[] getNewIv() {
         final byte[] iv = new byte[4];
         Util.getRandom().nextBytes(iv);
@@ -0,0 +1,138 @@
+package kinoko.server.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel, only accessed by the thread of the owning {@link GameExecutor}. Each bucket holds the timeouts
+ * that expire on ticks with the same index modulo the wheel size, and a timeout further away than one rotation waits for
+ * the remaining rounds. Inserting is O(1), and cancelling is O(1) as cancelled timeouts are only marked and dropped
+ * when their bucket is next visited.
+ */
+public final class TimingWheel {
+    private final long tickNanos;
+    private final Timeout[] buckets; // head of each bucket
+    private final Timeout[] tails;
+    private final int mask;
+    private final long startTime;
+    private long tick; // next tick to process
+    private int size;
+
+    TimingWheel(long tickDuration, TimeUnit timeUnit, int wheelSize, long startTime) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of 2");
+        }
+        this.tickNanos = timeUnit.toNanos(tickDuration);
+        this.buckets = new Timeout[wheelSize];
+        this.tails = new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+        this.startTime = startTime;
+    }
+
+    void add(Timeout timeout) {
+        final long ticks = Math.max(Math.ceilDiv(timeout.deadline - startTime, tickNanos), tick);
+        timeout.remainingRounds = (ticks - tick) / buckets.length;
+        final int index = (int) (ticks & mask);
+        // Appended, so that timeouts expiring on the same tick run in the order they were added
+        if (tails[index] == null) {
+            buckets[index] = timeout;
+        } else {
+            tails[index].next = timeout;
+        }
+        tails[index] = timeout;
+        size++;
+    }
+
+    /**
+     * Processes every tick up to the given time.
+     *
+     * @return the expired timeouts, in order of their ticks.
+     */
+    List<Timeout> advance(long now) {
+        List<Timeout> expired = null;
+        while (getTickTime(tick) <= now) {
+            final int index = (int) (tick & mask);
+            tick++;
+            Timeout previous = null;
+            Timeout timeout = buckets[index];
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                final boolean remove = timeout.isCancelled() || timeout.remainingRounds <= 0;
+                if (remove) {
+                    if (previous == null) {
+                        buckets[index] = next;
+                    } else {
+                        previous.next = next;
+                    }
+                    if (next == null) {
+                        tails[index] = previous;
+                    }
+                    timeout.next = null;
+                    size--;
+                    if (!timeout.isCancelled()) {
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                    previous = timeout;
+                }
+                timeout = next;
+            }
+        }
+        return expired != null ? expired : List.of();
+    }
+
+    /**
+     * @return the time of the next tick to process.
+     */
+    long getNextTickTime() {
+        return getTickTime(tick);
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    private long getTickTime(long tick) {
+        return startTime + tick * tickNanos;
+    }
+
+    /**
+     * Handle to a scheduled task. A periodic task is added back to a wheel after it runs, using the same timeout, so
+     * that cancelling the timeout stops the task regardless of which executor it is scheduled on.
+     */
+    public static final class Timeout {
+        private Runnable task;
+        private volatile boolean cancelled;
+        private long deadline;
+        private long remainingRounds;
+        private Timeout next;
+
+        Timeout() {
+        }
+
+        Runnable getTask() {
+            return task;
+        }
+
+        void setTask(Runnable task) {
+            this.task = task;
+        }
+
+        void setDeadline(long deadline) {
+            this.deadline = deadline;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
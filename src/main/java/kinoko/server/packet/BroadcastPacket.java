@@ -0,0 +1,76 @@
+package kinoko.server.packet;
+
+import io.netty.buffer.ByteBuf;
+import kinoko.server.header.OutHeader;
+import kinoko.util.crypto.ShandaCrypto;
+
+/**
+ * Read-only view of an {@link OutPacket} that is written to multiple clients. The {@link ShandaCrypto} stage does not
+ * depend on the client IV, so it is only computed once and shared between all recipients.
+ */
+public final class BroadcastPacket implements EncodedPacket {
+    private final OutPacket outPacket;
+    private volatile byte[] encryptedData;
+
+    private BroadcastPacket(OutPacket outPacket) {
+        this.outPacket = outPacket;
+    }
+
+    /**
+     * Returns the packet data with the {@link ShandaCrypto} stage applied. The returned array is shared and should not
+     * be modified, callers should copy the data before applying the per-client cipher.
+     */
+    public byte[] getEncryptedData() {
+        byte[] data = encryptedData;
+        if (data == null) {
+            synchronized (this) {
+                data = encryptedData;
+                if (data == null) {
+                    data = outPacket.getData();
+                    ShandaCrypto.encrypt(data);
+                    encryptedData = data;
+                }
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public int getSize() {
+        return outPacket.getSize();
+    }
+
+    @Override
+    public OutHeader getHeader() {
+        return outPacket.getHeader();
+    }
+
+    @Override
+    public byte[] getData() {
+        return outPacket.getData();
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return outPacket.getByte(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return outPacket.getInt(index);
+    }
+
+    @Override
+    public void writeTo(ByteBuf out) {
+        outPacket.writeTo(out);
+    }
+
+    @Override
+    public String toString() {
+        return outPacket.toString();
+    }
+
+    public static BroadcastPacket from(OutPacket outPacket) {
+        return new BroadcastPacket(outPacket);
+    }
+}
@@ -0,0 +1,124 @@
+package kinoko.server.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.ReferenceCounted;
+import kinoko.util.Util;
+
+/**
+ * {@link InPacket} over a retained {@link ByteBuf}, the buffer is released once the packet has been handled.
+ */
+public final class ByteBufInPacket implements InPacket, ReferenceCounted {
+    private final ByteBuf buffer;
+
+    public ByteBufInPacket(ByteBuf buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public byte peekByte() {
+        return buffer.getByte(buffer.readerIndex());
+    }
+
+    @Override
+    public byte decodeByte() {
+        return buffer.readByte();
+    }
+
+    @Override
+    public short decodeShort() {
+        return buffer.readShortLE();
+    }
+
+    @Override
+    public int decodeInt() {
+        return buffer.readIntLE();
+    }
+
+    @Override
+    public long decodeLong() {
+        return buffer.readLongLE();
+    }
+
+    @Override
+    public byte[] decodeArray(int length) {
+        final byte[] array = new byte[length];
+        buffer.readBytes(array);
+        return array;
+    }
+
+    @Override
+    public void decodeArray(byte[] array, int offset, int length) {
+        buffer.readBytes(array, offset, length);
+    }
+
+    @Override
+    public String decodeString(int length) {
+        if (!buffer.hasArray()) {
+            return StringCache.decode(decodeArray(length), 0, length);
+        }
+        final int index = buffer.readerIndex();
+        buffer.skipBytes(length); // bounds check
+        return StringCache.decode(buffer.array(), buffer.arrayOffset() + index, length);
+    }
+
+    @Override
+    public String decodeString() {
+        final short length = decodeShort();
+        return decodeString(length);
+    }
+
+    @Override
+    public byte[] getData() {
+        return ByteBufUtil.getBytes(buffer, 0, buffer.writerIndex());
+    }
+
+    @Override
+    public int getRemaining() {
+        return buffer.readableBytes();
+    }
+
+    @Override
+    public int refCnt() {
+        return buffer.refCnt();
+    }
+
+    @Override
+    public ByteBufInPacket retain() {
+        buffer.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBufInPacket retain(int increment) {
+        buffer.retain(increment);
+        return this;
+    }
+
+    @Override
+    public ByteBufInPacket touch() {
+        buffer.touch();
+        return this;
+    }
+
+    @Override
+    public ByteBufInPacket touch(Object hint) {
+        buffer.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buffer.release(decrement);
+    }
+
+    @Override
+    public String toString() {
+        return Util.readableByteArray(ByteBufUtil.getBytes(buffer, 2, Math.max(buffer.writerIndex() - 2, 0)));
+    }
+}
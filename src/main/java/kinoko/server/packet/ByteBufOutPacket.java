@@ -0,0 +1,139 @@
+package kinoko.server.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import kinoko.server.header.OutHeader;
+import kinoko.util.Util;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * {@link OutPacket} backed by a single growable {@link ByteBuf}. The packet data is written directly into the encoder
+ * output buffer by {@link #writeTo(ByteBuf)}, without an intermediate byte array.
+ */
+public final class ByteBufOutPacket implements OutPacket {
+    private static final Logger log = LogManager.getLogger(OutPacket.class);
+    private static final int INITIAL_SIZE = 16;
+    private final ByteBuf buffer;
+
+    public ByteBufOutPacket() {
+        this(INITIAL_SIZE);
+    }
+
+    public ByteBufOutPacket(int initialCapacity) {
+        // Packets can be written to multiple clients and do not have a release point, so they are left to the GC
+        this.buffer = Unpooled.buffer(initialCapacity);
+    }
+
+    @Override
+    public void encodeByte(byte value) {
+        buffer.writeByte(value);
+    }
+
+    @Override
+    public void encodeShort(short value) {
+        buffer.writeShortLE(value);
+    }
+
+    @Override
+    public void encodeInt(int value) {
+        buffer.writeIntLE(value);
+    }
+
+    @Override
+    public void encodeLong(long value) {
+        buffer.writeLongLE(value);
+    }
+
+    @Override
+    public void encodeDouble(double value) {
+        buffer.writeLongLE(Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void encodeArray(byte[] value) {
+        buffer.writeBytes(value);
+    }
+
+    @Override
+    public void encodeString(String value, int length) {
+        if (value == null) {
+            value = "";
+        }
+        if (value.length() > length) {
+            log.error("Encoding a string that is too long, string will be truncated");
+            writeAscii(value, length);
+        } else {
+            writeAscii(value, value.length());
+            buffer.writeZero(length - value.length());
+        }
+    }
+
+    @Override
+    public void encodeString(String value) {
+        if (value == null) {
+            value = "";
+        }
+        if (value.length() > Short.MAX_VALUE) {
+            log.error("Encoding a string that is too long, string will be truncated");
+        }
+        final int length = Math.min(value.length(), Short.MAX_VALUE);
+        buffer.writeShortLE(length);
+        writeAscii(value, length);
+    }
+
+    @Override
+    public int getSize() {
+        return buffer.writerIndex();
+    }
+
+    @Override
+    public OutHeader getHeader() {
+        if (buffer.writerIndex() >= 2) {
+            return OutHeader.getByValue(buffer.getShortLE(0));
+        }
+        return OutHeader.NO;
+    }
+
+    @Override
+    public byte[] getData() {
+        return ByteBufUtil.getBytes(buffer, 0, buffer.writerIndex());
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return buffer.getByte(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return buffer.getIntLE(index);
+    }
+
+    @Override
+    public void writeTo(ByteBuf out) {
+        out.writeBytes(buffer, 0, buffer.writerIndex());
+    }
+
+    /**
+     * Writes the first length characters of the string directly into the buffer, replacing characters that are not
+     * ASCII with '?' as {@link String#getBytes(java.nio.charset.Charset)} would.
+     */
+    private void writeAscii(String value, int length) {
+        buffer.ensureWritable(length);
+        final int writerIndex = buffer.writerIndex();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            buffer.setByte(writerIndex + i, c < 0x80 ? c : '?');
+        }
+        buffer.writerIndex(writerIndex + length);
+    }
+
+    @Override
+    public String toString() {
+        final OutHeader header = getHeader();
+        return String.format("%s(%s) | %s", header, Util.opToString(header.getValue()),
+                Util.readableByteArray(ByteBufUtil.getBytes(buffer, 2, Math.max(buffer.writerIndex() - 2, 0))));
+    }
+}
@@ -0,0 +1,28 @@
+package kinoko.server.packet;
+
+import io.netty.buffer.ByteBuf;
+import kinoko.server.header.OutHeader;
+
+/**
+ * Read side of an outbound packet, accepted by the packet encoder and {@code NettyClient#write}. Implemented by
+ * {@link OutPacket} and by {@link BroadcastPacket}, which cannot be modified after it is created.
+ */
+public interface EncodedPacket {
+    int getSize();
+
+    OutHeader getHeader();
+
+    byte[] getData();
+
+    /**
+     * Reads a byte at the given index of the packet data, without copying the packet.
+     */
+    byte getByte(int index);
+
+    /**
+     * Reads a little-endian int at the given index of the packet data, without copying the packet.
+     */
+    int getInt(int index);
+
+    void writeTo(ByteBuf out);
+}
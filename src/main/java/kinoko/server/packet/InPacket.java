@@ -17,6 +17,11 @@ public interface InPacket {
 
     byte[] decodeArray(int length);
 
+    /**
+     * Decodes length bytes into the given array, starting at offset.
+     */
+    void decodeArray(byte[] array, int offset, int length);
+
     String decodeString(int length);
 
     String decodeString();
@@ -6,7 +6,6 @@ import org.apache.logging.log4j.Logger;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
 
 public final class NioBufferInPacket implements InPacket {
     private static final Logger log = LogManager.getLogger(InPacket.class);
@@ -49,15 +48,22 @@ public final class NioBufferInPacket implements InPacket {
         return array;
     }
 
+    @Override
+    public void decodeArray(byte[] array, int offset, int length) {
+        buffer.get(array, offset, length);
+    }
+
     @Override
     public String decodeString(int length) {
-        return new String(decodeArray(length), StandardCharsets.US_ASCII);
+        final int position = buffer.position();
+        buffer.position(position + length); // bounds check
+        return StringCache.decode(buffer.array(), position, length);
     }
 
     @Override
     public String decodeString() {
         final short length = decodeShort();
-        return new String(decodeArray(length), StandardCharsets.US_ASCII);
+        return decodeString(length);
     }
 
     @Override
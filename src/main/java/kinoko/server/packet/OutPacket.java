@@ -6,7 +6,7 @@ import kinoko.util.FileTime;
 
 import java.time.Instant;
 
-public interface OutPacket {
+public interface OutPacket extends EncodedPacket {
     void encodeByte(byte value);
 
     default void encodeByte(boolean value) {
@@ -56,14 +56,8 @@ public interface OutPacket {
 
     void encodeString(String value);
 
-    int getSize();
-
-    OutHeader getHeader();
-
-    byte[] getData();
-
     static OutPacket of() {
-        return new NioBufferOutPacket();
+        return new ByteBufOutPacket();
     }
 
     static OutPacket of(byte[] data) {
@@ -79,7 +73,7 @@ public interface OutPacket {
     }
 
     static OutPacket of(OutHeader op) {
-        final OutPacket outPacket = OutPacket.of();
+        final OutPacket outPacket = new ByteBufOutPacket(PacketSizeEstimator.getInitialSize(op));
         outPacket.encodeShort(op.getValue());
         return outPacket;
     }
@@ -0,0 +1,38 @@
+package kinoko.server.packet;
+
+import kinoko.server.header.OutHeader;
+
+/**
+ * Tracks a moving estimate of the encoded size of each {@link OutHeader}, used as the initial capacity of new packets
+ * so that most packets are encoded into a single buffer allocation. The estimate is a decaying maximum: a larger packet
+ * raises the estimate immediately, while smaller packets lower it by 1/16 of the difference per packet. Updates from
+ * different threads are not synchronized, a lost update only affects the initial capacity of later packets. Sizes are
+ * recorded by the client {@code PacketEncoder}, so packets sent to other server nodes are not included.
+ */
+public final class PacketSizeEstimator {
+    private static final int MIN_SIZE = 16;
+    private static final int MAX_SIZE = 0x10000;
+    private static final int[] estimates = new int[OutHeader.values().length];
+
+    private PacketSizeEstimator() {
+    }
+
+    static int getInitialSize(OutHeader header) {
+        final int estimate = estimates[header.ordinal()];
+        if (estimate <= MIN_SIZE) {
+            return MIN_SIZE;
+        }
+        // Round up to a multiple of 16
+        return Math.min((estimate + 15) & ~15, MAX_SIZE);
+    }
+
+    public static void record(OutHeader header, int size) {
+        final int index = header.ordinal();
+        final int estimate = estimates[index];
+        if (size >= estimate) {
+            estimates[index] = size;
+        } else {
+            estimates[index] = estimate - ((estimate - size) >> 4);
+        }
+    }
+}
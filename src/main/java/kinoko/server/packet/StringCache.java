@@ -0,0 +1,56 @@
+package kinoko.server.packet;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct-mapped cache of short ASCII strings decoded from packets, such as character names, guild names and common
+ * chat. A decoded string is looked up by the hash of its bytes and reused if the cached string has the same content,
+ * otherwise the new string replaces the cached entry. Entries are immutable strings, so races between threads only
+ * result in a cache miss.
+ */
+final class StringCache {
+    private static final int MAX_LENGTH = 16;
+    private static final int SIZE = 4096; // power of 2
+    private static final String[] entries = new String[SIZE];
+
+    private StringCache() {
+    }
+
+    static String decode(byte[] array, int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_LENGTH) {
+            return new String(array, offset, length, StandardCharsets.US_ASCII);
+        }
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            final byte b = array[offset + i];
+            if (b < 0) {
+                // Not ASCII, decoded with replacement characters
+                return new String(array, offset, length, StandardCharsets.US_ASCII);
+            }
+            hash = 31 * hash + b;
+        }
+        final int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        final String cached = entries[index];
+        if (cached != null && matches(cached, array, offset, length)) {
+            return cached;
+        }
+        final String value = new String(array, offset, length, StandardCharsets.US_ASCII);
+        entries[index] = value;
+        return value;
+    }
+
+    private static boolean matches(String value, byte[] array, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != array[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
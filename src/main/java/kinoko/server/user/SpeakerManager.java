@@ -4,6 +4,8 @@ import kinoko.packet.world.WvsContext;
 import kinoko.server.ServerConfig;
 import kinoko.server.node.ClientStorage;
 import kinoko.server.node.ServerExecutor;
+import kinoko.server.packet.BroadcastPacket;
+import kinoko.server.packet.EncodedPacket;
 import kinoko.server.packet.OutPacket;
 import kinoko.world.user.User;
 
@@ -94,8 +96,9 @@ public final class SpeakerManager {
     }
 
     private void broadcastPacket(OutPacket outPacket) {
+        final EncodedPacket broadcastPacket = BroadcastPacket.from(outPacket);
         for (User user : clientStorage.getConnectedUsers()) {
-            user.write(outPacket);
+            user.write(broadcastPacket);
         }
     }
 }
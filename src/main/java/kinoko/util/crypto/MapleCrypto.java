@@ -17,55 +17,77 @@ public final class MapleCrypto {
             0x52, 0x00, 0x00, 0x00
     };
     public static final int BLOCK_SIZE = 16;
-    private static final Cipher cipher;
-
-    static {
-        final SecretKey key = new SecretKeySpec(AES_USER_KEY, "AES");
-        try {
-            cipher = Cipher.getInstance("AES/ECB/NoPadding");
-            cipher.init(Cipher.ENCRYPT_MODE, key);
-        } catch (NoSuchPaddingException |
-                 NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new RuntimeException(e);
-        }
-    }
+    public static final int SEGMENT_SIZE = 0x5B4;
+    private static final int FIRST_SEGMENT_SIZE = 0x5B0;
+    private static final int KEYSTREAM_SIZE = (SEGMENT_SIZE + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+    private static final ThreadLocal<CryptContext> cryptContext = ThreadLocal.withInitial(CryptContext::new);
 
     public static void initialize() {
-        // Run static initialization block
+        // Validate cipher creation
+        createCipher();
     }
 
     public static void crypt(byte[] data, byte[] iv) {
-        final byte[] cipher = new byte[BLOCK_SIZE];
-        int a = data.length;
-        int b = 0x5B0;
-        int c = 0;
+        crypt(data, 0, data.length, iv);
+    }
+
+    public static void crypt(byte[] data, int offset, int length, byte[] iv) {
+        if (length <= 0) {
+            return;
+        }
+        // Every segment restarts from the same IV, the keystream is generated once and applied to each segment
+        final byte[] keystream = cryptContext.get().generateKeystream(iv, Math.min(length, SEGMENT_SIZE));
+        int a = length;
+        int b = FIRST_SEGMENT_SIZE;
+        int c = offset;
         while (a > 0) {
-            final byte[] block = expandIv(iv);
             if (a < b) {
                 b = a;
             }
-            for (int i = c; i < (c + b); i++) {
-                if ((i - c) % BLOCK_SIZE == 0) {
-                    try {
-                        MapleCrypto.cipher.doFinal(block, 0, BLOCK_SIZE, cipher);
-                        System.arraycopy(cipher, 0, block, 0, BLOCK_SIZE);
-                    } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-                data[i] ^= block[(i - c) % BLOCK_SIZE];
+            for (int i = 0; i < b; i++) {
+                data[c + i] ^= keystream[i];
             }
             c += b;
             a -= b;
-            b = 0x5B4;
+            b = SEGMENT_SIZE;
         }
     }
 
-    private static byte[] expandIv(byte[] iv) {
-        final byte[] expandedIv = new byte[BLOCK_SIZE];
-        for (int i = 0; i < BLOCK_SIZE; i += iv.length) {
-            System.arraycopy(iv, 0, expandedIv, i, iv.length);
+    private static Cipher createCipher() {
+        final SecretKey key = new SecretKeySpec(AES_USER_KEY, "AES");
+        try {
+            final Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key);
+            return cipher;
+        } catch (NoSuchPaddingException |
+                 NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Per-thread cipher state, {@link Cipher} instances are not thread-safe and are used by multiple event loops.
+     */
+    private static final class CryptContext {
+        private final Cipher cipher = createCipher();
+        private final byte[] block = new byte[BLOCK_SIZE];
+        private final byte[] keystream = new byte[KEYSTREAM_SIZE];
+
+        private byte[] generateKeystream(byte[] iv, int length) {
+            // Expand IV
+            for (int i = 0; i < BLOCK_SIZE; i += iv.length) {
+                System.arraycopy(iv, 0, block, i, iv.length);
+            }
+            // Output feedback mode, each block is the encryption of the previous block
+            try {
+                cipher.doFinal(block, 0, BLOCK_SIZE, keystream, 0);
+                for (int i = BLOCK_SIZE; i < length; i += BLOCK_SIZE) {
+                    cipher.doFinal(keystream, i - BLOCK_SIZE, BLOCK_SIZE, keystream, i);
+                }
+            } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+                throw new RuntimeException(e);
+            }
+            return keystream;
         }
-        return expandedIv;
     }
 }
@@ -1,6 +1,19 @@
 package kinoko.util.crypto;
 
 public final class ShandaCrypto {
+    // Rotation lookup tables, indexed by [y % 8][x & 0xFF]
+    private static final byte[][] ROTATE_LEFT = new byte[8][256];
+    private static final byte[][] ROTATE_RIGHT = new byte[8][256];
+
+    static {
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 256; x++) {
+                ROTATE_LEFT[y][x] = rotateLeft((byte) x, y);
+                ROTATE_RIGHT[y][x] = rotateRight((byte) x, y);
+            }
+        }
+    }
+
     private static byte rotateLeft(byte x, int y) {
         final int tmp = (x & 0xFF) << (y % 8);
         return (byte) ((tmp & 0xFF) | (tmp >> 8));
@@ -12,39 +25,55 @@ public final class ShandaCrypto {
     }
 
     public static void encrypt(byte[] data) {
+        encrypt(data, 0, data.length);
+    }
+
+    public static void encrypt(byte[] data, int offset, int length) {
+        final byte[] rol3 = ROTATE_LEFT[3];
+        final byte[] rol4 = ROTATE_LEFT[4];
+        final byte[] ror3 = ROTATE_RIGHT[3];
+        final int end = offset + length;
         for (int i = 0; i < 3; i++) {
-            int a = data.length;
+            int a = length;
             byte b = 0;
-            for (int j = 0; j < data.length; j++) {
-                b ^= (byte) (a + rotateLeft(data[j], 3));
-                data[j] = (byte) (0x47 - rotateRight(b, a));
+            for (int j = offset; j < end; j++) {
+                b ^= (byte) (a + rol3[data[j] & 0xFF]);
+                data[j] = (byte) (0x47 - ROTATE_RIGHT[a & 7][b & 0xFF]);
                 a -= 1;
             }
-            a = data.length;
+            a = length;
             b = 0;
-            for (int j = data.length - 1; j >= 0; j--) {
-                b ^= (byte) (a + rotateLeft(data[j], 4));
-                data[j] = rotateRight((byte) (b ^ 0x13), 3);
+            for (int j = end - 1; j >= offset; j--) {
+                b ^= (byte) (a + rol4[data[j] & 0xFF]);
+                data[j] = ror3[(b ^ 0x13) & 0xFF];
                 a -= 1;
             }
         }
     }
 
     public static void decrypt(byte[] data) {
+        decrypt(data, 0, data.length);
+    }
+
+    public static void decrypt(byte[] data, int offset, int length) {
+        final byte[] rol3 = ROTATE_LEFT[3];
+        final byte[] ror3 = ROTATE_RIGHT[3];
+        final byte[] ror4 = ROTATE_RIGHT[4];
+        final int end = offset + length;
         for (int i = 0; i < 3; i++) {
-            int a = data.length;
+            int a = length;
             byte b = 0;
-            for (int j = data.length - 1; j >= 0; j--) {
-                final byte c = (byte) (rotateLeft(data[j], 3) ^ 0x13);
-                data[j] = rotateRight((byte) ((b ^ c) - a), 4);
+            for (int j = end - 1; j >= offset; j--) {
+                final byte c = (byte) (rol3[data[j] & 0xFF] ^ 0x13);
+                data[j] = ror4[((b ^ c) - a) & 0xFF];
                 b = c;
                 a -= 1;
             }
-            a = data.length;
+            a = length;
             b = 0;
-            for (int j = 0; j < data.length; j++) {
-                final byte c = rotateLeft((byte) ~(data[j] - 0x48), a);
-                data[j] = rotateRight((byte) ((b ^ c) - a), 3);
+            for (int j = offset; j < end; j++) {
+                final byte c = ROTATE_LEFT[a & 7][~(data[j] - 0x48) & 0xFF];
+                data[j] = ror3[((b ^ c) - a) & 0xFF];
                 b = c;
                 a -= 1;
             }
@@ -0,0 +1,488 @@
+package kinoko.util.tool.bot;
+
+import kinoko.server.ServerConfig;
+import kinoko.server.header.InHeader;
+import kinoko.server.header.OutHeader;
+import kinoko.server.packet.InPacket;
+import kinoko.server.packet.OutPacket;
+import kinoko.world.field.life.MoveElem;
+import kinoko.world.field.life.MovePath;
+import kinoko.world.job.JobConstants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated client session, logging in with an auto-created account and migrating to a channel server before driving
+ * scripted movement, attacks, chat and drop pick ups, or replaying a {@link PacketReplay} instead. All packet handling
+ * for a bot happens on the event loop of its current connection.
+ */
+public final class Bot {
+    private static final Logger log = LogManager.getLogger(Bot.class);
+    private static final String MAC_ADDRESS = "00-00-00-00-00-00";
+    private static final int[] STARTING_ITEMS = {
+            20000, // face
+            30000, // hair
+            0, // hair color
+            0, // skin
+            1040002, // coat
+            1060002, // pants
+            1072001, // shoes
+            1302000, // weapon
+    };
+    private static final int MAX_KNOWN_DROPS = 32;
+
+    private final LoadGenerator generator;
+    private final int index;
+    private final String username;
+    private final PacketReplay replay;
+    private final byte[] machineId = new byte[16];
+    private final List<Integer> drops = new ArrayList<>();
+    private volatile State state = State.LOGIN;
+    private volatile BotClient client;
+    private ScheduledFuture<?> actionFuture;
+    private boolean registered;
+    private int loginOpt;
+    private byte[] clientKey;
+    private int characterId;
+    private int fieldId;
+    private int fieldCrc;
+    private byte fieldKey;
+    private short x;
+    private short y;
+    private long requestTime;
+    private long chatTime;
+
+    public Bot(LoadGenerator generator, int index, String username, PacketReplay replay) {
+        this.generator = generator;
+        this.index = index;
+        this.username = username;
+        this.replay = replay;
+        ThreadLocalRandom.current().nextBytes(machineId);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public byte getFieldKey() {
+        return fieldKey;
+    }
+
+    public BotStats getStats() {
+        return generator.getStats();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void start() {
+        generator.connect(this, generator.getLoginHost(), generator.getLoginPort());
+    }
+
+    public void stop() {
+        state = State.STOPPED;
+        if (actionFuture != null) {
+            actionFuture.cancel(false);
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    public void fail(String reason) {
+        if (state == State.FAILED || state == State.STOPPED) {
+            return;
+        }
+        log.warn("Bot {} failed in state {} : {}", username, state, reason);
+        if (state == State.FIELD) {
+            getStats().decrementInField();
+        }
+        state = State.FAILED;
+        getStats().recordFailure();
+        if (actionFuture != null) {
+            actionFuture.cancel(false);
+        }
+    }
+
+    void onConnect(BotClient client) {
+        this.client = client;
+        switch (state) {
+            case LOGIN -> sendCheckPassword();
+            case CHANNEL -> sendMigrateIn();
+            default -> client.close();
+        }
+    }
+
+    void onDisconnect(BotClient client) {
+        if (client == this.client && state != State.STOPPED) {
+            getStats().recordDisconnect();
+            fail("Disconnected");
+        }
+    }
+
+    void onPacket(BotClient client, OutHeader header, InPacket inPacket) {
+        switch (header) {
+            case AliveReq -> client.send(OutPacket.of(InHeader.AliveAck.getValue()));
+            case CheckPasswordResult -> handleCheckPasswordResult(inPacket);
+            case SelectWorldResult -> handleSelectWorldResult(inPacket);
+            case CreateNewCharacterResult -> handleCreateNewCharacterResult(inPacket);
+            case SelectCharacterResult -> handleSelectCharacterResult(inPacket);
+            case CheckSPWResult -> fail("Incorrect secondary password");
+            case SetField -> handleSetField(inPacket);
+            case UserChat -> {
+                if (inPacket.decodeInt() == characterId && chatTime != 0) {
+                    getStats().getChatLatency().record(System.nanoTime() - chatTime);
+                    chatTime = 0;
+                }
+            }
+            case DropEnterField -> {
+                inPacket.decodeByte(); // nEnterType
+                final int dropId = inPacket.decodeInt();
+                if (drops.size() < MAX_KNOWN_DROPS) {
+                    drops.add(dropId);
+                }
+            }
+            case DropLeaveField -> {
+                inPacket.decodeByte(); // nLeaveType
+                drops.remove((Integer) inPacket.decodeInt());
+            }
+        }
+    }
+
+
+    // LOGIN METHODS ---------------------------------------------------------------------------------------------------
+
+    private void sendCheckPassword() {
+        final OutPacket outPacket = OutPacket.of(InHeader.CheckPassword.getValue());
+        outPacket.encodeString(username);
+        outPacket.encodeString(generator.getPassword());
+        outPacket.encodeArray(machineId);
+        outPacket.encodeInt(0); // nGameRoomClient
+        outPacket.encodeByte(0); // nGameStartMode
+        outPacket.encodeByte(0); // nWorldID
+        outPacket.encodeByte(0); // nChannelID
+        outPacket.encodeArray(new byte[4]); // partner code
+        requestTime = System.nanoTime();
+        client.send(outPacket);
+    }
+
+    private void handleCheckPasswordResult(InPacket inPacket) {
+        final int result = inPacket.decodeByte();
+        if (result == 5 && !registered) {
+            // NotRegistered, the account is created by the server if AUTO_CREATE_ACCOUNT is enabled
+            registered = true;
+            sendCheckPassword();
+            return;
+        }
+        if (result != 0) {
+            fail("Check password failed with result " + result);
+            return;
+        }
+        getStats().getLoginLatency().record(System.nanoTime() - requestTime);
+        inPacket.decodeByte();
+        inPacket.decodeInt();
+        inPacket.decodeInt(); // dwAccountId
+        inPacket.decodeByte(); // nGender
+        inPacket.decodeByte(); // nGradeCode
+        inPacket.decodeShort(); // nSubGradeCode
+        inPacket.decodeByte(); // nCountryID
+        inPacket.decodeString(); // sNexonClubID
+        inPacket.decodeByte(); // nPurchaseExp
+        inPacket.decodeByte(); // nChatBlockReason
+        inPacket.decodeLong(); // dtChatUnblockDate
+        inPacket.decodeLong(); // dtRegisterDate
+        inPacket.decodeInt(); // nNumOfCharacter
+        inPacket.decodeByte();
+        loginOpt = inPacket.decodeByte(); // bLoginOpt
+        clientKey = inPacket.decodeArray(8);
+
+        final OutPacket outPacket = OutPacket.of(InHeader.SelectWorld.getValue());
+        outPacket.encodeByte(2); // nGameStartMode
+        outPacket.encodeByte(ServerConfig.WORLD_ID);
+        outPacket.encodeByte(generator.getChannelId(this));
+        outPacket.encodeInt(0);
+        requestTime = System.nanoTime();
+        client.send(outPacket);
+    }
+
+    private void handleSelectWorldResult(InPacket inPacket) {
+        final int result = inPacket.decodeByte();
+        if (result != 0) {
+            fail("Select world failed with result " + result);
+            return;
+        }
+        getStats().getSelectWorldLatency().record(System.nanoTime() - requestTime);
+        final int count = inPacket.decodeByte();
+        if (count > 0) {
+            characterId = inPacket.decodeInt(); // dwCharacterID of the first character
+            sendSelectCharacter();
+            return;
+        }
+        final OutPacket outPacket = OutPacket.of(InHeader.CreateNewCharacter.getValue());
+        outPacket.encodeString(username);
+        outPacket.encodeInt(1); // RaceSelect.NORMAL
+        outPacket.encodeShort(0); // nSubJob
+        for (int itemId : STARTING_ITEMS) {
+            outPacket.encodeInt(itemId);
+        }
+        outPacket.encodeByte(0); // nGender
+        requestTime = System.nanoTime();
+        client.send(outPacket);
+    }
+
+    private void handleCreateNewCharacterResult(InPacket inPacket) {
+        final int result = inPacket.decodeByte();
+        if (result != 0) {
+            fail("Create new character failed with result " + result);
+            return;
+        }
+        getStats().getCreateCharacterLatency().record(System.nanoTime() - requestTime);
+        characterId = inPacket.decodeInt();
+        sendSelectCharacter();
+    }
+
+    private void sendSelectCharacter() {
+        final OutPacket outPacket;
+        switch (loginOpt) {
+            case 0 -> {
+                // INITIALIZE_SECONDARY_PASSWORD
+                outPacket = OutPacket.of(InHeader.EnableSPWRequest.getValue());
+                outPacket.encodeByte(1);
+                outPacket.encodeInt(characterId);
+                outPacket.encodeString(MAC_ADDRESS);
+                outPacket.encodeString(MAC_ADDRESS);
+                outPacket.encodeString(generator.getSecondaryPassword());
+            }
+            case 1 -> {
+                // CHECK_SECONDARY_PASSWORD
+                outPacket = OutPacket.of(InHeader.CheckSPWRequest.getValue());
+                outPacket.encodeString(generator.getSecondaryPassword());
+                outPacket.encodeInt(characterId);
+                outPacket.encodeString(MAC_ADDRESS);
+                outPacket.encodeString(MAC_ADDRESS);
+            }
+            default -> {
+                outPacket = OutPacket.of(InHeader.SelectCharacter.getValue());
+                outPacket.encodeInt(characterId);
+                outPacket.encodeString(MAC_ADDRESS);
+                outPacket.encodeString(MAC_ADDRESS);
+            }
+        }
+        requestTime = System.nanoTime();
+        client.send(outPacket);
+    }
+
+    private void handleSelectCharacterResult(InPacket inPacket) {
+        final int result = inPacket.decodeByte();
+        if (result != 0) {
+            fail("Select character failed with result " + result);
+            return;
+        }
+        getStats().getSelectCharacterLatency().record(System.nanoTime() - requestTime);
+        inPacket.decodeByte();
+        final byte[] channelHost = inPacket.decodeArray(4);
+        final int channelPort = inPacket.decodeShort() & 0xFFFF;
+        characterId = inPacket.decodeInt();
+
+        // Migrate to channel server
+        state = State.CHANNEL;
+        client.close();
+        generator.connect(this, channelHost, channelPort);
+    }
+
+
+    // FIELD METHODS ---------------------------------------------------------------------------------------------------
+
+    private void sendMigrateIn() {
+        final OutPacket outPacket = OutPacket.of(InHeader.MigrateIn.getValue());
+        outPacket.encodeInt(characterId);
+        outPacket.encodeArray(machineId);
+        outPacket.encodeByte(false);
+        outPacket.encodeByte(0);
+        outPacket.encodeArray(clientKey);
+        requestTime = System.nanoTime();
+        client.send(outPacket);
+    }
+
+    private void handleSetField(InPacket inPacket) {
+        inPacket.decodeShort(); // CClientOptMan::DecodeOpt
+        inPacket.decodeInt(); // nChannelID
+        inPacket.decodeInt(); // dwOldDriverID
+        fieldKey = inPacket.decodeByte(); // bFieldKey
+        final boolean characterData = inPacket.decodeBoolean(); // bCharacterData
+        inPacket.decodeShort(); // nNotifierCheck
+        if (characterData) {
+            inPacket.decodeInt(); // s1
+            inPacket.decodeInt(); // s2
+            inPacket.decodeInt(); // s3
+            inPacket.decodeLong(); // DBChar flag
+            inPacket.decodeByte(); // nCombatOrders
+            inPacket.decodeByte();
+            fieldId = decodePosMap(inPacket);
+        } else {
+            inPacket.decodeByte(); // bRevive
+            fieldId = inPacket.decodeInt(); // dwPosMap
+        }
+        fieldCrc = generator.getFieldCrc(fieldId);
+        drops.clear();
+        x = 0;
+        y = 0;
+        if (state == State.CHANNEL) {
+            getStats().getMigrateLatency().record(System.nanoTime() - requestTime);
+            getStats().incrementInField();
+            state = State.FIELD;
+            if (replay != null) {
+                replay.start(this, client);
+                return;
+            }
+            final long interval = generator.getActionInterval();
+            actionFuture = client.getSocketChannel().eventLoop().scheduleAtFixedRate(this::doAction,
+                    ThreadLocalRandom.current().nextLong(interval), interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void onReplayDone() {
+        log.info("Bot {} finished replaying {} packets from {}", username, replay.getSize(), replay.getPath());
+        getStats().recordReplayDone();
+    }
+
+    private static int decodePosMap(InPacket inPacket) {
+        // CharacterStat::Decode up to dwPosMap
+        inPacket.decodeInt(); // dwCharacterID
+        inPacket.decodeArray(13); // sCharacterName
+        inPacket.decodeByte(); // nGender
+        inPacket.decodeByte(); // nSkin
+        inPacket.decodeInt(); // nFace
+        inPacket.decodeInt(); // nHair
+        inPacket.decodeArray(8 * 3); // aliPetLockerSN
+        inPacket.decodeByte(); // nLevel
+        final short job = inPacket.decodeShort(); // nJob
+        inPacket.decodeArray(2 * 4); // nSTR, nDEX, nINT, nLUK
+        inPacket.decodeArray(4 * 4); // nHP, nMHP, nMP, nMMP
+        inPacket.decodeShort(); // nAP
+        if (JobConstants.isExtendSpJob(job)) {
+            final int size = inPacket.decodeByte();
+            inPacket.decodeArray(size * 2);
+        } else {
+            inPacket.decodeShort(); // nSP
+        }
+        inPacket.decodeInt(); // nEXP
+        inPacket.decodeShort(); // nPOP
+        inPacket.decodeInt(); // nTempEXP
+        return inPacket.decodeInt(); // dwPosMap
+    }
+
+    private void doAction() {
+        if (state != State.FIELD) {
+            actionFuture.cancel(false);
+            return;
+        }
+        final int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 60) {
+            sendMove();
+        } else if (roll < 80) {
+            sendAttack();
+        } else if (roll < 90 || drops.isEmpty()) {
+            sendChat();
+        } else {
+            sendPickUp();
+        }
+    }
+
+    private void sendMove() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final short vx = (short) random.nextInt(-125, 126);
+        final short newX = (short) (x + vx * 3 / 10);
+        final MoveElem elem = new MoveElem((byte) 0); // NORMAL
+        elem.setX(newX);
+        elem.setY(y);
+        elem.setVx(vx);
+        elem.setVy((short) 0);
+        elem.setFh((short) 0);
+        elem.setXOffset((short) 0);
+        elem.setYOffset((short) 0);
+        elem.setMoveAction((byte) (vx < 0 ? 3 : 2)); // walk
+        elem.setElapse((short) 300);
+        final MovePath movePath = new MovePath(x, y, vx, (short) 0, List.of(elem));
+
+        final OutPacket outPacket = OutPacket.of(InHeader.UserMove.getValue());
+        outPacket.encodeInt(0);
+        outPacket.encodeInt(0);
+        outPacket.encodeByte(fieldKey); // bFieldKey
+        outPacket.encodeInt(0);
+        outPacket.encodeInt(0);
+        outPacket.encodeInt(fieldCrc); // dwCrc
+        outPacket.encodeInt(0);
+        outPacket.encodeInt(0); // Crc32
+        movePath.encode(outPacket);
+        client.send(outPacket);
+        x = newX;
+    }
+
+    private void sendAttack() {
+        // Basic attack without targets, CUserLocal::TryDoingNormalAttack
+        final OutPacket outPacket = OutPacket.of(InHeader.UserMeleeAttack.getValue());
+        outPacket.encodeByte(fieldKey); // bFieldKey
+        outPacket.encodeInt(0); // ~pDrInfo.dr0
+        outPacket.encodeInt(0); // ~pDrInfo.dr1
+        outPacket.encodeByte(0); // nDamagePerMob | (16 * nMobCount)
+        outPacket.encodeInt(0); // ~pDrInfo.dr2
+        outPacket.encodeInt(0); // ~pDrInfo.dr3
+        outPacket.encodeInt(0); // nSkillID
+        outPacket.encodeByte(0); // nCombatOrders
+        outPacket.encodeInt(0); // dwKey
+        outPacket.encodeInt(0); // Crc32
+        outPacket.encodeInt(0); // SKILLLEVELDATA::GetCrC
+        outPacket.encodeInt(0); // SKILLLEVELDATA::GetCrC
+        outPacket.encodeByte(0); // flag
+        outPacket.encodeShort(5); // nAttackAction & 0x7FFF | bLeft << 15
+        outPacket.encodeInt(0); // GETCRC32Svr
+        outPacket.encodeByte(0); // nAttackActionType
+        outPacket.encodeByte(4); // nAttackSpeed
+        outPacket.encodeInt((int) System.currentTimeMillis()); // tAttackTime
+        outPacket.encodeInt(0); // dwID
+        outPacket.encodeShort(x); // GetPos()->x
+        outPacket.encodeShort(y); // GetPos()->y
+        client.send(outPacket);
+    }
+
+    private void sendChat() {
+        final OutPacket outPacket = OutPacket.of(InHeader.UserChat.getValue());
+        outPacket.encodeInt((int) System.currentTimeMillis()); // update_time
+        outPacket.encodeString("hello from " + username); // sText
+        outPacket.encodeByte(false); // bOnlyBalloon
+        chatTime = System.nanoTime();
+        client.send(outPacket);
+    }
+
+    private void sendPickUp() {
+        final int dropId = drops.remove(ThreadLocalRandom.current().nextInt(drops.size()));
+        final OutPacket outPacket = OutPacket.of(InHeader.DropPickUpRequest.getValue());
+        outPacket.encodeByte(fieldKey); // bFieldKey
+        outPacket.encodeInt((int) System.currentTimeMillis()); // update_time
+        outPacket.encodeShort(x); // pt->x
+        outPacket.encodeShort(y); // pt->y
+        outPacket.encodeInt(dropId); // dwDropID
+        outPacket.encodeInt(0); // dwCliCrc
+        client.send(outPacket);
+    }
+
+    public enum State {
+        LOGIN,
+        CHANNEL,
+        FIELD,
+        FAILED,
+        STOPPED
+    }
+}
@@ -0,0 +1,33 @@
+package kinoko.util.tool.bot;
+
+import io.netty.channel.socket.SocketChannel;
+import kinoko.server.netty.NettyClient;
+import kinoko.server.packet.OutPacket;
+
+/**
+ * Client side of a single bot connection, holding the cipher state used by the reused {@link
+ * kinoko.server.netty.PacketEncoder} and {@link kinoko.server.netty.PacketDecoder}.
+ */
+public final class BotClient extends NettyClient {
+    private final Bot bot;
+    private final SocketChannel socketChannel;
+
+    public BotClient(Bot bot, SocketChannel socketChannel) {
+        super(null, socketChannel);
+        this.bot = bot;
+        this.socketChannel = socketChannel;
+    }
+
+    public Bot getBot() {
+        return bot;
+    }
+
+    public SocketChannel getSocketChannel() {
+        return socketChannel;
+    }
+
+    public void send(OutPacket outPacket) {
+        bot.getStats().recordSent(outPacket.getSize());
+        write(outPacket);
+    }
+}
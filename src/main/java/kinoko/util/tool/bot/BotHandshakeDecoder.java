@@ -0,0 +1,52 @@
+package kinoko.util.tool.bot;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import kinoko.server.ServerConstants;
+import kinoko.server.netty.NettyClient;
+
+import java.util.List;
+
+/**
+ * Reads the plain handshake sent by the server on connect, which contains the cipher IVs for the connection. Removes
+ * itself from the pipeline afterwards, so that the remaining data is handled by the {@link
+ * kinoko.server.netty.PacketDecoder}.
+ */
+public final class BotHandshakeDecoder extends ByteToMessageDecoder {
+    private final BotClient client;
+
+    public BotHandshakeDecoder(BotClient client) {
+        this.client = client;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        if (in.readableBytes() < 2) {
+            return;
+        }
+        final int length = in.getUnsignedShortLE(in.readerIndex());
+        if (in.readableBytes() < 2 + length) {
+            return;
+        }
+        in.skipBytes(2);
+        final short version = in.readShortLE();
+        final int patchLength = in.readUnsignedShortLE();
+        in.skipBytes(patchLength);
+        final byte[] sendIv = new byte[4];
+        final byte[] recvIv = new byte[4];
+        in.readBytes(sendIv); // recvIv for server
+        in.readBytes(recvIv); // sendIv for server
+        in.skipBytes(1); // locale
+        if (version != ServerConstants.GAME_VERSION) {
+            client.getBot().fail("Unexpected game version " + version);
+            ctx.close();
+            return;
+        }
+        client.setSendIv(sendIv);
+        client.setRecvIv(recvIv);
+        ctx.channel().attr(NettyClient.CLIENT_KEY).set(client);
+        ctx.pipeline().remove(this);
+        client.getBot().onConnect(client);
+    }
+}
@@ -0,0 +1,38 @@
+package kinoko.util.tool.bot;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import kinoko.server.header.OutHeader;
+import kinoko.server.packet.InPacket;
+
+public final class BotPacketHandler extends SimpleChannelInboundHandler<InPacket> {
+    private final BotClient client;
+
+    public BotPacketHandler(BotClient client) {
+        this.client = client;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, InPacket inPacket) {
+        if (inPacket.getRemaining() < 2) {
+            return;
+        }
+        client.getBot().getStats().recordReceived(inPacket.getRemaining());
+        final OutHeader header = OutHeader.getByValue(inPacket.decodeShort());
+        if (header == null) {
+            return;
+        }
+        client.getBot().onPacket(client, header, inPacket);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        client.getBot().onDisconnect(client);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        client.getBot().fail("Exception caught : " + cause);
+        ctx.close();
+    }
+}
@@ -0,0 +1,112 @@
+package kinoko.util.tool.bot;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class BotStats {
+    private final LongAdder packetsSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder packetsReceived = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LongAdder replaysDone = new LongAdder();
+    private final AtomicInteger inField = new AtomicInteger();
+    private final LatencyRecorder loginLatency = new LatencyRecorder("login");
+    private final LatencyRecorder selectWorldLatency = new LatencyRecorder("world");
+    private final LatencyRecorder createCharacterLatency = new LatencyRecorder("create");
+    private final LatencyRecorder selectCharacterLatency = new LatencyRecorder("select");
+    private final LatencyRecorder migrateLatency = new LatencyRecorder("migrate");
+    private final LatencyRecorder chatLatency = new LatencyRecorder("chat");
+
+    public void recordSent(int length) {
+        packetsSent.increment();
+        bytesSent.add(length);
+    }
+
+    public void recordReceived(int length) {
+        packetsReceived.increment();
+        bytesReceived.add(length);
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public void recordDisconnect() {
+        disconnects.increment();
+    }
+
+    public void recordReplayDone() {
+        replaysDone.increment();
+    }
+
+    public void incrementInField() {
+        inField.incrementAndGet();
+    }
+
+    public void decrementInField() {
+        inField.decrementAndGet();
+    }
+
+    public long getPacketsSent() {
+        return packetsSent.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getDisconnects() {
+        return disconnects.sum();
+    }
+
+    public long getReplaysDone() {
+        return replaysDone.sum();
+    }
+
+    public int getInField() {
+        return inField.get();
+    }
+
+    public LatencyRecorder getLoginLatency() {
+        return loginLatency;
+    }
+
+    public LatencyRecorder getSelectWorldLatency() {
+        return selectWorldLatency;
+    }
+
+    public LatencyRecorder getCreateCharacterLatency() {
+        return createCharacterLatency;
+    }
+
+    public LatencyRecorder getSelectCharacterLatency() {
+        return selectCharacterLatency;
+    }
+
+    public LatencyRecorder getMigrateLatency() {
+        return migrateLatency;
+    }
+
+    public LatencyRecorder getChatLatency() {
+        return chatLatency;
+    }
+
+    public List<LatencyRecorder> getLatencyRecorders() {
+        return List.of(loginLatency, selectWorldLatency, createCharacterLatency, selectCharacterLatency, migrateLatency, chatLatency);
+    }
+}
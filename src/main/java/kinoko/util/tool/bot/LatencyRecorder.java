@@ -0,0 +1,84 @@
+package kinoko.util.tool.bot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets of 8 linear sub-buckets each, recording microseconds with a
+ * relative error of at most 12.5%.
+ */
+public final class LatencyRecorder {
+    private static final int LINEAR_LIMIT = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (Long.SIZE - 4) * SUB_BUCKETS;
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        buckets.incrementAndGet(getIndex(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0)));
+    }
+
+    /**
+     * Returns a copy of the bucket counts, used to compute percentiles over a consistent view.
+     */
+    public long[] snapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    public static long getCount(long[] snapshot) {
+        long count = 0;
+        for (long value : snapshot) {
+            count += value;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the lower bound in microseconds of the bucket containing the given percentile (0 - 100).
+     */
+    public static long getPercentile(long[] snapshot, double percentile) {
+        final long count = getCount(snapshot);
+        if (count == 0) {
+            return 0;
+        }
+        final long target = Math.max((long) Math.ceil(count * percentile / 100.0), 1);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return getValue(i);
+            }
+        }
+        return getValue(snapshot.length - 1);
+    }
+
+    private static int getIndex(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros); // >= 4
+        final int sub = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    private static long getValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        final int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        final int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - 3);
+    }
+}
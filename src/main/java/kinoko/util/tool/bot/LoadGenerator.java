@@ -0,0 +1,336 @@
+package kinoko.util.tool.bot;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import kinoko.provider.MapProvider;
+import kinoko.provider.map.MapInfo;
+import kinoko.server.ServerConfig;
+import kinoko.server.ServerConstants;
+import kinoko.server.netty.PacketCapture;
+import kinoko.server.netty.PacketDecoder;
+import kinoko.server.netty.PacketEncoder;
+import kinoko.util.Util;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Headless load generator, connecting a configurable number of {@link Bot} instances to a running server and reporting
+ * throughput, latency percentiles and CPU usage at a fixed interval. Accounts are created on first login, so the
+ * target server should be started with AUTO_CREATE_ACCOUNT enabled.
+ * <p>
+ * If BOT_REPLAY_DIRECTORY is set, one bot is started for each {@link PacketCapture} file in the directory, which
+ * replays the captured session instead of the scripted actions.
+ */
+public final class LoadGenerator {
+    private static final Logger log = LogManager.getLogger(LoadGenerator.class);
+    public static final String BOT_HOST = Util.getEnv("BOT_HOST", "127.0.0.1");
+    public static final int BOT_COUNT = Util.getEnv("BOT_COUNT", 100);
+    public static final int BOT_RAMP_UP = Util.getEnv("BOT_RAMP_UP", 10); // seconds to connect all bots
+    public static final int BOT_DURATION = Util.getEnv("BOT_DURATION", 300); // seconds, including ramp up
+    public static final int BOT_ACTION_INTERVAL = Util.getEnv("BOT_ACTION_INTERVAL", 500); // milliseconds between actions
+    public static final int BOT_REPORT_INTERVAL = Util.getEnv("BOT_REPORT_INTERVAL", 10); // seconds between reports
+    public static final String BOT_PREFIX = Util.getEnv("BOT_PREFIX", "bot");
+    public static final String BOT_PASSWORD = Util.getEnv("BOT_PASSWORD", "password");
+    public static final String BOT_SECONDARY_PASSWORD = Util.getEnv("BOT_SECONDARY_PASSWORD", "000000");
+    public static final int BOT_SERVER_PID = Util.getEnv("BOT_SERVER_PID", 0); // server process for CPU usage, 0 to disable
+    public static final boolean BOT_FIELD_CRC = Util.getEnv("BOT_FIELD_CRC", true); // load Map.wz for field CRC values
+    public static final String BOT_REPLAY_DIRECTORY = Util.getEnv("BOT_REPLAY_DIRECTORY", ""); // replay packet captures instead of scripted actions
+    public static final int BOT_REPLAY_SPEED = Util.getEnv("BOT_REPLAY_SPEED", 1); // replay speed multiplier
+
+    private final BotStats stats = new BotStats();
+    private final Map<Integer, Integer> fieldCrcs = new HashMap<>();
+    private final List<Bot> bots = new ArrayList<>();
+    private final EventLoopGroup group;
+    private final Bootstrap bootstrap;
+    private final byte[] loginHost;
+    private final boolean loadFieldCrc;
+
+    private LoadGenerator(EventLoopGroup group, byte[] loginHost, boolean loadFieldCrc) {
+        this.group = group;
+        this.loginHost = loginHost;
+        this.loadFieldCrc = loadFieldCrc;
+        this.bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true);
+    }
+
+    public BotStats getStats() {
+        return stats;
+    }
+
+    public byte[] getLoginHost() {
+        return loginHost;
+    }
+
+    public int getLoginPort() {
+        return ServerConstants.LOGIN_PORT;
+    }
+
+    public String getPassword() {
+        return BOT_PASSWORD;
+    }
+
+    public String getSecondaryPassword() {
+        return BOT_SECONDARY_PASSWORD;
+    }
+
+    public long getActionInterval() {
+        return BOT_ACTION_INTERVAL;
+    }
+
+    public int getChannelId(Bot bot) {
+        return bot.getIndex() % ServerConfig.CHANNELS_PER_WORLD;
+    }
+
+    public int getFieldCrc(int fieldId) {
+        if (!loadFieldCrc) {
+            return 0;
+        }
+        synchronized (fieldCrcs) {
+            return fieldCrcs.computeIfAbsent(fieldId, (id) -> MapProvider.getMapInfo(id).map(MapInfo::getFieldCrc).orElse(0));
+        }
+    }
+
+    void connect(Bot bot, byte[] host, int port) {
+        final InetAddress address;
+        try {
+            address = InetAddress.getByAddress(host);
+        } catch (UnknownHostException e) {
+            bot.fail("Invalid host address");
+            return;
+        }
+        bootstrap.clone()
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        final BotClient client = new BotClient(bot, ch);
+                        ch.pipeline().addLast(
+                                new BotHandshakeDecoder(client),
+                                new PacketDecoder(PacketEncoder.SEND_VERSION),
+                                new BotPacketHandler(client),
+                                new PacketEncoder(PacketDecoder.RECV_VERSION)
+                        );
+                    }
+                })
+                .connect(address, port)
+                .addListener((ChannelFutureListener) future -> {
+                    if (!future.isSuccess()) {
+                        bot.fail("Could not connect to " + address.getHostAddress() + ":" + port);
+                    }
+                });
+    }
+
+    private void run() throws IOException, InterruptedException {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        if (!BOT_REPLAY_DIRECTORY.isEmpty()) {
+            // Start each replay at the same offset from the first capture as the original session, scaled by the replay speed
+            final List<PacketReplay> replays = loadReplays(Path.of(BOT_REPLAY_DIRECTORY));
+            final long firstMillis = replays.stream().mapToLong(PacketReplay::getStartMillis).min().orElse(0);
+            for (int i = 0; i < replays.size(); i++) {
+                final PacketReplay replay = replays.get(i);
+                final Bot bot = new Bot(this, i, String.format("%s%05d", BOT_PREFIX, i), replay);
+                bots.add(bot);
+                scheduler.schedule(bot::start, (replay.getStartMillis() - firstMillis) / Math.max(BOT_REPLAY_SPEED, 1), TimeUnit.MILLISECONDS);
+            }
+            log.info("Replaying {} captures at {}x speed, running for {} seconds", replays.size(), BOT_REPLAY_SPEED, BOT_DURATION);
+        } else {
+            final long rampDelay = BOT_COUNT > 0 ? TimeUnit.SECONDS.toNanos(BOT_RAMP_UP) / BOT_COUNT : 0;
+            for (int i = 0; i < BOT_COUNT; i++) {
+                final Bot bot = new Bot(this, i, String.format("%s%05d", BOT_PREFIX, i), null);
+                bots.add(bot);
+                scheduler.schedule(bot::start, rampDelay * i, TimeUnit.NANOSECONDS);
+            }
+            log.info("Starting {} bots over {} seconds, running for {} seconds", BOT_COUNT, BOT_RAMP_UP, BOT_DURATION);
+        }
+        final Reporter reporter = new Reporter();
+        scheduler.scheduleAtFixedRate(reporter::report, BOT_REPORT_INTERVAL, BOT_REPORT_INTERVAL, TimeUnit.SECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(BOT_DURATION));
+        scheduler.shutdownNow();
+        for (Bot bot : bots) {
+            bot.stop();
+        }
+        reporter.summary();
+        group.shutdownGracefully().sync();
+    }
+
+    private static List<PacketReplay> loadReplays(Path directory) throws IOException {
+        final List<Path> paths;
+        try (final Stream<Path> stream = Files.list(directory)) {
+            paths = stream.filter((path) -> path.getFileName().toString().endsWith(PacketCapture.FILE_EXTENSION)).sorted().toList();
+        }
+        final List<PacketReplay> replays = new ArrayList<>();
+        for (Path path : paths) {
+            final PacketReplay replay = PacketReplay.load(path, BOT_REPLAY_SPEED);
+            if (replay.getSize() == 0) {
+                log.warn("Skipping packet capture {} without channel packets", path);
+                continue;
+            }
+            replays.add(replay);
+        }
+        return replays;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean loadFieldCrc = false;
+        if (BOT_FIELD_CRC) {
+            try {
+                MapProvider.initialize();
+                loadFieldCrc = true;
+            } catch (Exception e) {
+                log.warn("Could not load Map.wz, movement packets will be sent without field CRC values");
+            }
+        }
+        final EventLoopGroup group = new NioEventLoopGroup();
+        new LoadGenerator(group, Util.getHost(BOT_HOST), loadFieldCrc).run();
+        System.exit(0);
+    }
+
+
+    // REPORTING -------------------------------------------------------------------------------------------------------
+
+    private final class Reporter {
+        private final long startTime = System.nanoTime();
+        private final Map<String, long[]> lastSnapshots = new HashMap<>();
+        private final long serverCpuStart = getServerCpuTime();
+        private long lastTime = startTime;
+        private long lastPacketsSent;
+        private long lastPacketsReceived;
+        private long lastBytesSent;
+        private long lastBytesReceived;
+        private long lastBotCpu = getBotCpuTime();
+        private long lastServerCpu = serverCpuStart;
+
+        private synchronized void report() {
+            final long now = System.nanoTime();
+            final double seconds = (now - lastTime) / 1_000_000_000.0;
+            final long packetsSent = stats.getPacketsSent();
+            final long packetsReceived = stats.getPacketsReceived();
+            final long bytesSent = stats.getBytesSent();
+            final long bytesReceived = stats.getBytesReceived();
+            final long botCpu = getBotCpuTime();
+            final long serverCpu = getServerCpuTime();
+            final StringBuilder sb = new StringBuilder();
+            sb.append(String.format("[%4ds] in field %d/%d, failed %d, disconnected %d | out %.0f pkt/s %.1f KiB/s | in %.0f pkt/s %.1f KiB/s",
+                    TimeUnit.NANOSECONDS.toSeconds(now - startTime), stats.getInField(), bots.size(), stats.getFailures(), stats.getDisconnects(),
+                    (packetsSent - lastPacketsSent) / seconds, (bytesSent - lastBytesSent) / seconds / 1024,
+                    (packetsReceived - lastPacketsReceived) / seconds, (bytesReceived - lastBytesReceived) / seconds / 1024));
+            sb.append(String.format("\n  cpu : system %.1f%%, bots %.1f%%", getSystemCpuLoad() * 100, getCpuPercent(botCpu - lastBotCpu, now - lastTime)));
+            if (serverCpu >= 0) {
+                sb.append(String.format(", server %.1f%%", getCpuPercent(serverCpu - lastServerCpu, now - lastTime)));
+            }
+            for (LatencyRecorder recorder : stats.getLatencyRecorders()) {
+                final long[] snapshot = recorder.snapshot();
+                final long[] last = lastSnapshots.getOrDefault(recorder.getName(), new long[snapshot.length]);
+                final long[] delta = new long[snapshot.length];
+                for (int i = 0; i < snapshot.length; i++) {
+                    delta[i] = snapshot[i] - last[i];
+                }
+                lastSnapshots.put(recorder.getName(), snapshot);
+                appendLatency(sb, recorder.getName(), delta);
+            }
+            log.info(sb.toString());
+            lastTime = now;
+            lastPacketsSent = packetsSent;
+            lastPacketsReceived = packetsReceived;
+            lastBytesSent = bytesSent;
+            lastBytesReceived = bytesReceived;
+            lastBotCpu = botCpu;
+            lastServerCpu = serverCpu;
+        }
+
+        private synchronized void summary() {
+            final long elapsed = System.nanoTime() - startTime;
+            final double seconds = elapsed / 1_000_000_000.0;
+            final StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Summary over %.0f seconds : in field %d/%d, failed %d, disconnected %d, replayed %d | out %d packets (%.0f pkt/s) | in %d packets (%.0f pkt/s)",
+                    seconds, stats.getInField(), bots.size(), stats.getFailures(), stats.getDisconnects(), stats.getReplaysDone(),
+                    stats.getPacketsSent(), stats.getPacketsSent() / seconds, stats.getPacketsReceived(), stats.getPacketsReceived() / seconds));
+            final long serverCpu = getServerCpuTime();
+            if (serverCpu >= 0) {
+                sb.append(String.format("\n  cpu : server %.1f%%", getCpuPercent(serverCpu - serverCpuStart, elapsed)));
+            }
+            for (LatencyRecorder recorder : stats.getLatencyRecorders()) {
+                appendLatency(sb, recorder.getName(), recorder.snapshot());
+            }
+            log.info(sb.toString());
+        }
+
+        private static void appendLatency(StringBuilder sb, String name, long[] snapshot) {
+            final long count = LatencyRecorder.getCount(snapshot);
+            if (count == 0) {
+                return;
+            }
+            sb.append(String.format("\n  %-8s : n=%d p50=%.2fms p90=%.2fms p99=%.2fms", name, count,
+                    LatencyRecorder.getPercentile(snapshot, 50) / 1000.0,
+                    LatencyRecorder.getPercentile(snapshot, 90) / 1000.0,
+                    LatencyRecorder.getPercentile(snapshot, 99) / 1000.0));
+        }
+    }
+
+
+    // CPU METHODS -----------------------------------------------------------------------------------------------------
+
+    private static double getCpuPercent(long cpuNanos, long wallNanos) {
+        if (wallNanos <= 0) {
+            return 0;
+        }
+        return cpuNanos * 100.0 / wallNanos;
+    }
+
+    private static double getSystemCpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean osBean) {
+            return Math.max(osBean.getCpuLoad(), 0);
+        }
+        return 0;
+    }
+
+    private static long getBotCpuTime() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean osBean) {
+            return Math.max(osBean.getProcessCpuTime(), 0);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the CPU time in nanoseconds of the server process configured by BOT_SERVER_PID, read from
+     * /proc/[pid]/stat. Returns -1 if not configured or unavailable.
+     */
+    private static long getServerCpuTime() {
+        if (BOT_SERVER_PID <= 0) {
+            return -1;
+        }
+        try {
+            final String stat = Files.readString(Path.of("/proc", String.valueOf(BOT_SERVER_PID), "stat"));
+            // Fields after the command name, which is enclosed in parentheses and may contain spaces
+            final String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            final long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]); // utime + stime
+            return ticks * TimeUnit.SECONDS.toNanos(1) / 100; // USER_HZ
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package kinoko.util.tool.bot;
+
+import kinoko.server.header.InHeader;
+import kinoko.server.netty.PacketCapture;
+import kinoko.server.packet.OutPacket;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the packets of a {@link PacketCapture} file through a {@link Bot}, preserving the recorded packet order and
+ * spacing scaled by the replay speed. The capture is replayed from the first packet after MigrateIn, once the bot has
+ * entered the field with its own character.
+ */
+public final class PacketReplay {
+    private static final Set<InHeader> skippedHeaders = Set.of(
+            InHeader.MigrateIn, // sent by the bot on connect
+            InHeader.AliveAck, // sent by the bot in response to AliveReq
+            InHeader.UserTransferChannelRequest, // would close the connection
+            InHeader.UserMigrateToCashShopRequest,
+            InHeader.UserMigrateToITCRequest
+    );
+    private static final Map<InHeader, Integer> fieldKeyOffsets; // offset of bFieldKey after the opcode
+
+    static {
+        final Map<InHeader, Integer> offsets = new EnumMap<>(InHeader.class);
+        offsets.put(InHeader.UserMove, 8);
+        offsets.put(InHeader.UserMeleeAttack, 0);
+        offsets.put(InHeader.UserShootAttack, 0);
+        offsets.put(InHeader.UserMagicAttack, 0);
+        offsets.put(InHeader.UserBodyAttack, 0);
+        offsets.put(InHeader.DropPickUpRequest, 0);
+        offsets.put(InHeader.PetDropPickUpRequest, 8);
+        offsets.put(InHeader.UserPortalScriptRequest, 0);
+        offsets.put(InHeader.UserPortalTeleportRequest, 0);
+        offsets.put(InHeader.UserTransferFieldRequest, 0);
+        fieldKeyOffsets = Collections.unmodifiableMap(offsets);
+    }
+
+    private final Path path;
+    private final long startMillis;
+    private final List<PacketCapture.Record> records;
+    private final int speed;
+    private int position;
+    private long startTime;
+    private long baseTime;
+
+    private PacketReplay(Path path, long startMillis, List<PacketCapture.Record> records, int speed) {
+        this.path = path;
+        this.startMillis = startMillis;
+        this.records = records;
+        this.speed = speed;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public int getSize() {
+        return records.size();
+    }
+
+    public boolean isDone() {
+        return position >= records.size();
+    }
+
+    /**
+     * Starts replaying the capture on the event loop of the given client.
+     */
+    void start(Bot bot, BotClient client) {
+        position = 0;
+        startTime = System.nanoTime();
+        baseTime = records.isEmpty() ? 0 : records.get(0).time();
+        scheduleNext(bot, client);
+    }
+
+    private void scheduleNext(Bot bot, BotClient client) {
+        if (isDone()) {
+            bot.onReplayDone();
+            return;
+        }
+        final long offset = TimeUnit.MICROSECONDS.toNanos(records.get(position).time() - baseTime) / speed;
+        final long delay = Math.max(startTime + offset - System.nanoTime(), 0);
+        client.getSocketChannel().eventLoop().schedule(() -> {
+            if (bot.getState() != Bot.State.FIELD || !client.getSocketChannel().isActive()) {
+                return;
+            }
+            // Send every record that is due, so that late timers do not shift the rest of the replay
+            final long now = System.nanoTime();
+            while (!isDone() && startTime + TimeUnit.MICROSECONDS.toNanos(records.get(position).time() - baseTime) / speed <= now) {
+                client.send(createPacket(records.get(position++).data(), bot.getFieldKey()));
+            }
+            scheduleNext(bot, client);
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Loads a capture file, dropping the records up to the first MigrateIn and the records that are handled by the bot.
+     */
+    public static PacketReplay load(Path path, int speed) throws IOException {
+        try (final PacketCapture.Reader reader = new PacketCapture.Reader(path)) {
+            final List<PacketCapture.Record> records = new ArrayList<>();
+            boolean migrated = false;
+            PacketCapture.Record record;
+            while ((record = reader.next()) != null) {
+                final InHeader header = getHeader(record.data());
+                if (header == InHeader.MigrateIn) {
+                    migrated = true;
+                }
+                if (!migrated || header == null || skippedHeaders.contains(header)) {
+                    continue;
+                }
+                records.add(record);
+            }
+            return new PacketReplay(path, reader.getStartMillis(), Collections.unmodifiableList(records), Math.max(speed, 1));
+        }
+    }
+
+
+    // HELPER METHODS --------------------------------------------------------------------------------------------------
+
+    private static InHeader getHeader(byte[] data) {
+        if (data.length < 2) {
+            return null;
+        }
+        return InHeader.getByValue((short) ((data[0] & 0xFF) | (data[1] << 8)));
+    }
+
+    private static OutPacket createPacket(byte[] data, byte fieldKey) {
+        final Integer offset = fieldKeyOffsets.get(getHeader(data));
+        if (offset == null || data.length <= offset + 2) {
+            return OutPacket.of(data);
+        }
+        // The recorded field key belongs to the original session, rewrite it so that the server accepts the packet
+        final byte[] copy = data.clone();
+        copy[offset + 2] = fieldKey;
+        return OutPacket.of(copy);
+    }
+}
@@ -14,6 +14,7 @@ import kinoko.server.ServerConfig;
 import kinoko.server.field.FieldStorage;
 import kinoko.server.field.Instance;
 import kinoko.server.field.InstanceFieldStorage;
+import kinoko.server.node.FieldPlacement;
 import kinoko.server.node.ServerExecutor;
 import kinoko.server.packet.OutPacket;
 import kinoko.util.Util;
@@ -33,21 +34,17 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public final class Field {
-    private static final AtomicInteger fieldCounter = new AtomicInteger(1);
     private final AtomicInteger fieldObjectCounter = new AtomicInteger(1);
     private final AtomicBoolean firstEnterScript = new AtomicBoolean(false);
-    private final int executorIndex = fieldCounter.getAndIncrement();
 
     private final FieldStorage fieldStorage;
     private final MapInfo mapInfo;
-    private final ScheduledFuture<?> fieldEventFuture;
+    private final FieldPlacement placement;
     private final Map<Integer, Consumer<Mob>> mobSpawnModifiers;
     private final List<MapleTvMessage> mapleTvQueue;
 
@@ -60,8 +57,13 @@ public final class Field {
     private final MiniRoomPool miniRoomPool;
     private final TownPortalPool townPortalPool;
     private final AffectedAreaPool affectedAreaPool;
+    private final MoveAggregator moveAggregator;
 
     private WeatherEffect weatherEffect;
+    private volatile Instant lastActive = Instant.now(); // last update with users, or last lookup
+    private boolean hibernated; // guarded by this
+    private boolean evicted; // guarded by this
+    private int updateInterval = ServerConfig.FIELD_TICK_INTERVAL;
 
     private Instant nextMobRespawn = Instant.now();
     private Instant nextDropExpire = Instant.now();
@@ -82,12 +84,13 @@ public final class Field {
         this.miniRoomPool = new MiniRoomPool(this);
         this.townPortalPool = new TownPortalPool(this);
         this.affectedAreaPool = new AffectedAreaPool(this);
-        // Initialize field updates
-        this.fieldEventFuture = ServerExecutor.scheduleWithFixedDelay(this, this::update, ServerConfig.FIELD_TICK_INTERVAL, ServerConfig.FIELD_TICK_INTERVAL, TimeUnit.MILLISECONDS);
+        this.moveAggregator = new MoveAggregator(ServerConfig.FIELD_MOVE_COALESCE_INTERVAL);
+        // Assign field executor, updates are started once the field is populated
+        this.placement = ServerExecutor.placeField(this);
     }
 
-    public int getExecutorIndex() {
-        return executorIndex;
+    public FieldPlacement getPlacement() {
+        return placement;
     }
 
     public FieldStorage getFieldStorage() {
@@ -199,12 +202,12 @@ public final class Field {
         return affectedAreaPool;
     }
 
-    public MapInfo getMapInfo() {
-        return mapInfo;
+    public MoveAggregator getMoveAggregator() {
+        return moveAggregator;
     }
 
-    public ScheduledFuture<?> getFieldEventFuture() {
-        return fieldEventFuture;
+    public MapInfo getMapInfo() {
+        return mapInfo;
     }
 
     public Map<Integer, Consumer<Mob>> getMobSpawnModifiers() {
@@ -215,6 +218,52 @@ public final class Field {
         return mapleTvQueue;
     }
 
+    /**
+     * @return the milliseconds until the next update, computed from the activity in the field on the last update.
+     */
+    public int getUpdateInterval() {
+        return updateInterval;
+    }
+
+    public Instant getLastActive() {
+        return lastActive;
+    }
+
+    public synchronized boolean isHibernated() {
+        return hibernated;
+    }
+
+    /**
+     * Marks the field as active, waking it up if it is hibernated. Called when the field is looked up from its storage,
+     * so that a field that was just resolved for a warp is not hibernated or evicted before the user enters.
+     *
+     * @return false if the field has been evicted and should be looked up again.
+     */
+    public synchronized boolean keepAlive() {
+        if (evicted) {
+            return false;
+        }
+        lastActive = Instant.now();
+        if (hibernated) {
+            hibernated = false;
+            ServerExecutor.wakeField(this);
+        }
+        return true;
+    }
+
+    /**
+     * Marks a hibernated field as evicted, after which it can no longer be woken up by {@link #keepAlive()}.
+     *
+     * @return true if the field was hibernated and is now evicted.
+     */
+    public synchronized boolean evict() {
+        if (!hibernated || evicted) {
+            return false;
+        }
+        evicted = true;
+        return true;
+    }
+
     public int getNewObjectId() {
         return fieldObjectCounter.getAndIncrement();
     }
@@ -237,6 +286,7 @@ public final class Field {
         userPool.updateUsers(now);
         mobPool.updateMobs(now);
         affectedAreaPool.updateAffectedAreas(now);
+        moveAggregator.update(now.toEpochMilli());
         // Handle maple tv
         if (!mapleTvQueue.isEmpty()) {
             if (now.isAfter(mapleTvQueue.getFirst().getExpireTime())) {
@@ -256,6 +306,19 @@ public final class Field {
                 weatherEffect = null;
             }
         }
+        // Handle update interval and hibernation
+        updateInterval = computeUpdateInterval();
+        if (hasUser()) {
+            lastActive = now;
+        } else if (canHibernate(now)) {
+            synchronized (this) {
+                // Checked again, as users are added to the pool before waking the field
+                if (!hasUser()) {
+                    hibernated = true;
+                    ServerExecutor.hibernateField(this);
+                }
+            }
+        }
         // Handle instance
         if (fieldStorage instanceof InstanceFieldStorage instanceFieldStorage) {
             final Instance instance = instanceFieldStorage.getInstance();
@@ -332,12 +395,53 @@ public final class Field {
         userPool.broadcastPacket(outPacket, except);
     }
 
+    /**
+     * Broadcasts a packet about the user to nearby users, see {@link UserPool#broadcastNearbyPacket}.
+     */
+    public void broadcastNearbyPacket(OutPacket outPacket, User user) {
+        userPool.broadcastNearbyPacket(outPacket, user);
+    }
+
+    public void broadcastNearbyPacket(OutPacket outPacket, User user, boolean includeUser) {
+        userPool.broadcastNearbyPacket(outPacket, user, includeUser);
+    }
+
+    /**
+     * Fields with affected areas, buffered movement or a maple tv message, and fields with mobs or users that have
+     * temporary stats or cooltimes are updated every tick, as their expiry and intervals are handled on update. Other
+     * fields step down towards {@link ServerConfig#FIELD_TICK_INTERVAL_MAX} with fewer users and no drops. Tasks submitted
+     * to the field, such as packet handlers, bring the next update forward to the next tick.
+     */
+    private int computeUpdateInterval() {
+        if (ServerConfig.FIELD_TICK_INTERVAL_MAX <= ServerConfig.FIELD_TICK_INTERVAL) {
+            return ServerConfig.FIELD_TICK_INTERVAL;
+        }
+        if (!affectedAreaPool.isEmpty() || moveAggregator.getPendingCount() > 0 || !mapleTvQueue.isEmpty()) {
+            return ServerConfig.FIELD_TICK_INTERVAL;
+        }
+        if (mobPool.getBy((mob) -> !mob.getMobStat().getTemporaryStats().isEmpty()).isPresent()) {
+            return ServerConfig.FIELD_TICK_INTERVAL;
+        }
+        if (userPool.getBy((user) -> !user.getSecondaryStat().getTemporaryStats().isEmpty() || !user.getSkillManager().getSkillCooltimes().isEmpty()).isPresent()) {
+            return ServerConfig.FIELD_TICK_INTERVAL;
+        }
+        final int activity = userPool.getCount() + (dropPool.isEmpty() ? 0 : 1);
+        return Math.max(ServerConfig.FIELD_TICK_INTERVAL_MAX / (activity + 1), ServerConfig.FIELD_TICK_INTERVAL);
+    }
+
+    private boolean canHibernate(Instant now) {
+        // Instance fields keep updating to handle the instance expiry
+        return ServerConfig.FIELD_HIBERNATE_DELAY > 0 && !(fieldStorage instanceof InstanceFieldStorage) &&
+                now.isAfter(lastActive.plus(ServerConfig.FIELD_HIBERNATE_DELAY, ChronoUnit.SECONDS));
+    }
+
     public boolean hasUser() {
         return !userPool.isEmpty();
     }
 
     public void addUser(User user) {
         userPool.addUser(user);
+        keepAlive();
         // Execute field enter scripts
         if (mapInfo.hasOnFirstUserEnter()) {
             if (firstEnterScript.compareAndSet(false, true)) {
@@ -373,6 +477,7 @@ public final class Field {
 
     public void removeUser(User user) {
         userPool.removeUser(user);
+        moveAggregator.remove(user);
         // Handle dialogs
         user.closeDialog();
         // Handle instance
@@ -398,6 +503,7 @@ public final class Field {
     public static Field from(FieldStorage fieldStorage, MapInfo mapInfo) {
         final Field field = new Field(fieldStorage, mapInfo);
         populateField(field, mapInfo);
+        ServerExecutor.startUpdates(field);
         return field;
     }
 
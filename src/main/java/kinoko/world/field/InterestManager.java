@@ -0,0 +1,149 @@
+package kinoko.world.field;
+
+import kinoko.server.ServerConfig;
+import kinoko.util.Rect;
+import kinoko.world.user.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which users of a field are inside each other's view rectangle, so that positional packets are only sent to
+ * nearby users. Visibility is symmetric, and users are only removed from view once they are further than the view
+ * rectangle extended by {@link ServerConfig#FIELD_VIEW_MARGIN}, to avoid repeated enter and leave packets for users
+ * moving along the boundary. Packets keyed by the character ID of a user, including chat, are only sent to the users in
+ * view, as clients ignore them for users that are not spawned. Field-wide packets such as notices and weather are not
+ * affected.
+ */
+public final class InterestManager {
+    private final SpatialGrid<User> grid;
+    private final Map<Integer, Set<User>> observers = new ConcurrentHashMap<>(); // User::getCharacterId() -> users in view
+    private final int viewWidth;
+    private final int viewHeight;
+    private final int viewMargin;
+
+    public InterestManager(int viewWidth, int viewHeight, int viewMargin) {
+        this.grid = new SpatialGrid<>(viewWidth, viewHeight);
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.viewMargin = viewMargin;
+    }
+
+    /**
+     * Returns the users that can see the given user, not including the user. The returned set is updated concurrently
+     * and should not be modified.
+     */
+    public Set<User> getObservers(User user) {
+        return observers.getOrDefault(user.getCharacterId(), Collections.emptySet());
+    }
+
+    public boolean isObserving(User observer, User user) {
+        return getObservers(user).contains(observer);
+    }
+
+    /**
+     * Adds the user to the grid.
+     *
+     * @return the users that are in view of the added user.
+     */
+    public synchronized List<User> addUser(User user) {
+        final List<User> inView = new ArrayList<>();
+        grid.forEachInsideRect(getViewRect(user, 0), (other) -> {
+            if (other.getCharacterId() != user.getCharacterId()) {
+                inView.add(other);
+            }
+        });
+        grid.add(user);
+        final Set<User> userObservers = ConcurrentHashMap.newKeySet();
+        userObservers.addAll(inView);
+        observers.put(user.getCharacterId(), userObservers);
+        for (User other : inView) {
+            getObservers(other).add(user);
+        }
+        return inView;
+    }
+
+    /**
+     * Removes the user from the grid.
+     *
+     * @return the users that were in view of the removed user.
+     */
+    public synchronized List<User> removeUser(User user) {
+        grid.remove(user);
+        final Set<User> userObservers = observers.remove(user.getCharacterId());
+        if (userObservers == null) {
+            return List.of();
+        }
+        for (User other : userObservers) {
+            getObservers(other).remove(user);
+        }
+        return new ArrayList<>(userObservers);
+    }
+
+    /**
+     * Updates the view of the user after it has moved, adding the users that came into view to entered and the users
+     * that went out of view to left.
+     */
+    public synchronized void updateUser(User user, List<User> entered, List<User> left) {
+        final Set<User> userObservers = observers.get(user.getCharacterId());
+        if (userObservers == null) {
+            return;
+        }
+        grid.update(user);
+        for (User other : userObservers) {
+            if (!isInView(user, other, viewMargin)) {
+                left.add(other);
+            }
+        }
+        grid.forEachInsideRect(getViewRect(user, 0), (other) -> {
+            if (other.getCharacterId() != user.getCharacterId() && !userObservers.contains(other)) {
+                entered.add(other);
+            }
+        });
+        for (User other : left) {
+            userObservers.remove(other);
+            getObservers(other).remove(user);
+        }
+        for (User other : entered) {
+            userObservers.add(other);
+            getObservers(other).add(user);
+        }
+    }
+
+    public synchronized void clear() {
+        grid.clear();
+        observers.clear();
+    }
+
+
+    // HELPER METHODS --------------------------------------------------------------------------------------------------
+
+    private Rect getViewRect(User user, int margin) {
+        final int halfWidth = viewWidth / 2 + margin;
+        final int halfHeight = viewHeight / 2 + margin;
+        return new Rect(user.getX() - halfWidth, user.getY() - halfHeight, user.getX() + halfWidth, user.getY() + halfHeight);
+    }
+
+    private boolean isInView(User user, User other, int margin) {
+        return Math.abs(user.getX() - other.getX()) <= viewWidth / 2 + margin &&
+                Math.abs(user.getY() - other.getY()) <= viewHeight / 2 + margin;
+    }
+
+    /**
+     * Interest management is only used for fields that do not fit in a single view rectangle.
+     */
+    public static InterestManager from(Field field) {
+        if (!ServerConfig.FIELD_INTEREST_MANAGEMENT) {
+            return null;
+        }
+        final Rect bounds = field.getMapInfo().getRootBounds();
+        if (bounds == null || (bounds.getWidth() <= ServerConfig.FIELD_VIEW_WIDTH && bounds.getHeight() <= ServerConfig.FIELD_VIEW_HEIGHT)) {
+            return null;
+        }
+        return new InterestManager(ServerConfig.FIELD_VIEW_WIDTH, ServerConfig.FIELD_VIEW_HEIGHT, ServerConfig.FIELD_VIEW_MARGIN);
+    }
+}
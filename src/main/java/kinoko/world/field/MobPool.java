@@ -46,6 +46,7 @@ public final class MobPool extends FieldObjectPool<Mob> {
         if (!removeObject(mob)) {
             return false;
         }
+        field.getMoveAggregator().remove(mob);
         // Send MobLeaveField after processing attack
         ServerExecutor.submit(field, () -> {
             field.broadcastPacket(MobPacket.mobLeaveField(mob, leaveType));
@@ -0,0 +1,123 @@
+package kinoko.world.field;
+
+import kinoko.server.ServerConfig;
+import kinoko.server.packet.OutPacket;
+import kinoko.world.field.life.MoveElem;
+import kinoko.world.field.life.MovePath;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Buffers the {@link MovePath} broadcasts of each field object, and flushes a single merged {@link MovePath} per object
+ * every {@link ServerConfig#FIELD_MOVE_COALESCE_INTERVAL} milliseconds. The merged path starts from the position of
+ * the first buffered path and contains the elements of every buffered path, so that the remote clients replay the same
+ * movement with a bounded delay. Paths are only merged if they were submitted with the same merge key, as the merged
+ * path is broadcast with the packet of the last submission.
+ */
+public final class MoveAggregator {
+    private static final int MAX_ELEMS = 0xFF; // encoded as a byte
+    private final Map<FieldObject, PendingMove> pendingMoves = new LinkedHashMap<>();
+    private final long interval;
+    private long nextFlush;
+
+    public MoveAggregator(long interval) {
+        this.interval = interval;
+    }
+
+    public boolean isEnabled() {
+        return interval > 0;
+    }
+
+    public void submit(FieldObject object, MovePath movePath, Function<MovePath, OutPacket> packetFactory, Consumer<OutPacket> broadcaster) {
+        submit(object, movePath, 0, packetFactory, broadcaster);
+    }
+
+    /**
+     * Buffers the movement of the object. If coalescing is disabled, the packet is broadcast immediately.
+     *
+     * @param object        the moving object, used to merge consecutive paths.
+     * @param movePath      the path received from the client.
+     * @param mergeKey      identifies the fields of the move packet other than the path, the buffered path is flushed
+     *                      instead of merged if the key is different.
+     * @param packetFactory creates the move packet for a (merged) path.
+     * @param broadcaster   broadcasts the move packet, called on flush.
+     */
+    public synchronized void submit(FieldObject object, MovePath movePath, long mergeKey, Function<MovePath, OutPacket> packetFactory, Consumer<OutPacket> broadcaster) {
+        if (!isEnabled()) {
+            broadcaster.accept(packetFactory.apply(movePath));
+            return;
+        }
+        PendingMove pendingMove = pendingMoves.get(object);
+        if (pendingMove != null && (pendingMove.mergeKey != mergeKey || pendingMove.elems.size() + movePath.getElems().size() > MAX_ELEMS)) {
+            pendingMoves.remove(object);
+            pendingMove.flush();
+            pendingMove = null;
+        }
+        if (pendingMove == null) {
+            pendingMove = new PendingMove(movePath, mergeKey);
+            pendingMoves.put(object, pendingMove);
+        }
+        pendingMove.elems.addAll(movePath.getElems());
+        pendingMove.packetFactory = packetFactory;
+        pendingMove.broadcaster = broadcaster;
+    }
+
+    /**
+     * Broadcasts the buffered movement of the object immediately, used before packets that should not be reordered
+     * with the movement of the object.
+     */
+    public synchronized void flush(FieldObject object) {
+        final PendingMove pendingMove = pendingMoves.remove(object);
+        if (pendingMove != null) {
+            pendingMove.flush();
+        }
+    }
+
+    /**
+     * Discards the buffered movement of the object, used when the object leaves the field.
+     */
+    public synchronized void remove(FieldObject object) {
+        pendingMoves.remove(object);
+    }
+
+    /**
+     * Broadcasts the buffered movement of every object if the coalescing interval has elapsed, called on field tick.
+     */
+    public synchronized void update(long now) {
+        if (pendingMoves.isEmpty() || now < nextFlush) {
+            return;
+        }
+        nextFlush = now + interval;
+        for (PendingMove pendingMove : pendingMoves.values()) {
+            pendingMove.flush();
+        }
+        pendingMoves.clear();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingMoves.size();
+    }
+
+    private static final class PendingMove {
+        private final MovePath firstPath;
+        private final long mergeKey;
+        private final List<MoveElem> elems = new ArrayList<>();
+        private Function<MovePath, OutPacket> packetFactory;
+        private Consumer<OutPacket> broadcaster;
+
+        private PendingMove(MovePath firstPath, long mergeKey) {
+            this.firstPath = firstPath;
+            this.mergeKey = mergeKey;
+        }
+
+        private void flush() {
+            final MovePath mergedPath = new MovePath(firstPath.getX(), firstPath.getY(), firstPath.getVx(), firstPath.getVy(), elems);
+            broadcaster.accept(packetFactory.apply(mergedPath));
+        }
+    }
+}
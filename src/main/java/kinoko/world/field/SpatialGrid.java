@@ -0,0 +1,106 @@
+package kinoko.world.field;
+
+import kinoko.util.Rect;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid over the positions of {@link FieldObject} instances, used to find the objects inside a {@link Rect}
+ * without scanning the whole {@link FieldObjectPool}. Positions are only read when an object is added or updated, so
+ * {@link #update(FieldObject)} should be called after the object moves. Not thread-safe.
+ */
+public final class SpatialGrid<T extends FieldObject> {
+    private final Map<Long, Set<T>> cells = new HashMap<>(); // cell key -> objects
+    private final Map<Integer, Long> objectCells = new HashMap<>(); // FieldObject::getId() -> cell key
+    private final int cellWidth;
+    private final int cellHeight;
+
+    public SpatialGrid(int cellWidth, int cellHeight) {
+        this.cellWidth = Math.max(cellWidth, 1);
+        this.cellHeight = Math.max(cellHeight, 1);
+    }
+
+    public int getCount() {
+        return objectCells.size();
+    }
+
+    public void add(T object) {
+        final long key = getCellKey(object.getX(), object.getY());
+        objectCells.put(object.getId(), key);
+        cells.computeIfAbsent(key, (k) -> new HashSet<>()).add(object);
+    }
+
+    public boolean remove(T object) {
+        final Long key = objectCells.remove(object.getId());
+        if (key == null) {
+            return false;
+        }
+        removeFromCell(key, object);
+        return true;
+    }
+
+    /**
+     * Moves the object to the cell of its current position.
+     *
+     * @return true if the object changed cells.
+     */
+    public boolean update(T object) {
+        final long key = getCellKey(object.getX(), object.getY());
+        final Long oldKey = objectCells.put(object.getId(), key);
+        if (oldKey != null && oldKey == key) {
+            return false;
+        }
+        if (oldKey != null) {
+            removeFromCell(oldKey, object);
+        }
+        cells.computeIfAbsent(key, (k) -> new HashSet<>()).add(object);
+        return true;
+    }
+
+    public void forEachInsideRect(Rect rect, Consumer<T> consumer) {
+        final int minCellX = Math.floorDiv(rect.getLeft(), cellWidth);
+        final int maxCellX = Math.floorDiv(rect.getRight(), cellWidth);
+        final int minCellY = Math.floorDiv(rect.getTop(), cellHeight);
+        final int maxCellY = Math.floorDiv(rect.getBottom(), cellHeight);
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                final Set<T> cell = cells.get(toCellKey(cellX, cellY));
+                if (cell == null) {
+                    continue;
+                }
+                for (T object : cell) {
+                    if (rect.isInsideRect(object.getX(), object.getY())) {
+                        consumer.accept(object);
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+        objectCells.clear();
+    }
+
+
+    // HELPER METHODS --------------------------------------------------------------------------------------------------
+
+    private void removeFromCell(long key, T object) {
+        final Set<T> cell = cells.get(key);
+        if (cell != null && cell.remove(object) && cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private long getCellKey(int x, int y) {
+        return toCellKey(Math.floorDiv(x, cellWidth), Math.floorDiv(y, cellHeight));
+    }
+
+    private static long toCellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -15,7 +15,7 @@ public final class SummonedPool extends FieldObjectPool<Summoned> {
         summoned.setField(field);
         summoned.setId(field.getNewObjectId());
         addObject(summoned);
-        field.broadcastPacket(SummonedPacket.summonedEnterField(user, summoned));
+        field.broadcastNearbyPacket(SummonedPacket.summonedEnterField(user, summoned), user, true);
         summoned.setEnterType(SummonedEnterType.DEFAULT);
     }
 
@@ -26,6 +26,7 @@ public final class SummonedPool extends FieldObjectPool<Summoned> {
         if (summoned.getSkillId() == Mechanic.ACCELERATION_BOT_EX_7) {
             Mechanic.handleRemoveAccelerationBot(summoned);
         }
+        // Field-wide, the owner is removed from view before the summoned when leaving the field
         field.broadcastPacket(SummonedPacket.summonedLeaveField(user, summoned));
         return true;
     }
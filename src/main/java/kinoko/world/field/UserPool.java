@@ -10,6 +10,8 @@ import kinoko.provider.QuestProvider;
 import kinoko.provider.map.PortalInfo;
 import kinoko.provider.quest.QuestInfo;
 import kinoko.server.ServerConfig;
+import kinoko.server.packet.BroadcastPacket;
+import kinoko.server.packet.EncodedPacket;
 import kinoko.server.packet.OutPacket;
 import kinoko.world.field.drop.DropEnterType;
 import kinoko.world.field.summoned.Summoned;
@@ -33,8 +35,15 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public final class UserPool extends FieldObjectPool<User> {
+    private final InterestManager interestManager; // null if every user is in view
+
     public UserPool(Field field) {
         super(field);
+        this.interestManager = InterestManager.from(field);
+    }
+
+    public InterestManager getInterestManager() {
+        return interestManager;
     }
 
     public Optional<User> getByCharacterName(String name) {
@@ -43,44 +52,33 @@ public final class UserPool extends FieldObjectPool<User> {
 
     public synchronized void addUser(User user) {
         // Update client with existing users in pool
-        forEach((existingUser) -> {
-            try (var locked = existingUser.acquire()) {
-                user.write(UserPacket.userEnterField(locked.get()));
-                for (Pet pet : existingUser.getPets()) {
-                    user.write(PetPacket.petActivated(existingUser, pet));
-                }
-                for (List<Summoned> summonedList : existingUser.getSummoned().values()) {
-                    for (Summoned summoned : summonedList) {
-                        user.write(SummonedPacket.summonedEnterField(existingUser, summoned));
-                    }
-                }
-                if (existingUser.getDragon() != null) {
-                    user.write(DragonPacket.dragonEnterField(existingUser, existingUser.getDragon()));
-                }
-                if (existingUser.getOpenGate() != null) {
-                    user.write(FieldPacket.openGateCreated(existingUser, existingUser.getOpenGate(), false));
-                    if (existingUser.getOpenGate().getSecondGate() != null) {
-                        user.write(FieldPacket.openGateCreated(existingUser, existingUser.getOpenGate().getSecondGate(), false));
-                    }
-                }
+        if (interestManager != null) {
+            for (User existingUser : interestManager.addUser(user)) {
+                writeUserEnterField(user, existingUser);
             }
-        });
+        } else {
+            forEach((existingUser) -> writeUserEnterField(user, existingUser));
+        }
 
         // Add user to pool
         addObject(user);
-        broadcastPacket(UserPacket.userEnterField(user), user);
+        broadcastNearbyPacket(UserPacket.userEnterField(user), user);
 
         // Add user pets
         for (Pet pet : user.getPets()) {
             pet.setPosition(field, user.getX(), user.getY());
-            broadcastPacket(PetPacket.petActivated(user, pet));
+            final OutPacket petPacket = PetPacket.petActivated(user, pet);
+            user.write(petPacket);
+            broadcastNearbyPacket(petPacket, user);
             user.write(PetPacket.petLoadExceptionList(user, pet.getPetIndex(), pet.getItemSn(), user.getConfigManager().getPetExceptionList()));
         }
 
         // Add user dragon
         if (user.getDragon() != null) {
             user.getDragon().setPosition(field, user.getX(), user.getY());
-            broadcastPacket(DragonPacket.dragonEnterField(user, user.getDragon()));
+            final OutPacket dragonPacket = DragonPacket.dragonEnterField(user, user.getDragon());
+            user.write(dragonPacket);
+            broadcastNearbyPacket(dragonPacket, user);
         }
 
         // Add user summoned
@@ -161,7 +159,14 @@ public final class UserPool extends FieldObjectPool<User> {
         if (!removeObject(user)) {
             return false;
         }
-        broadcastPacket(UserPacket.userLeaveField(user), user);
+        if (interestManager != null) {
+            final EncodedPacket outPacket = BroadcastPacket.from(UserPacket.userLeaveField(user));
+            for (User observer : interestManager.removeUser(user)) {
+                observer.write(outPacket);
+            }
+        } else {
+            broadcastPacket(UserPacket.userLeaveField(user), user);
+        }
 
         // Handle controller change
         field.getMobPool().forEach((mob) -> {
@@ -279,7 +284,7 @@ public final class UserPool extends FieldObjectPool<User> {
                             // Deactivate pet if required
                             final Optional<Integer> petIndexResult = user.getPetIndex(item.getItemSn());
                             if (petIndexResult.isPresent() && user.removePet(petIndexResult.get())) {
-                                user.getField().broadcastPacket(PetPacket.petDeactivated(user, petIndexResult.get(), 2)); // The pet's magical time has run out and so it has turned back into a doll.
+                                user.getField().broadcastNearbyPacket(PetPacket.petDeactivated(user, petIndexResult.get(), 2), user, true); // The pet's magical time has run out and so it has turned back into a doll.
                             }
                         } else {
                             // Remove item from inventory
@@ -299,6 +304,28 @@ public final class UserPool extends FieldObjectPool<User> {
     }
 
 
+    /**
+     * Updates the users in view after the user has moved, writing the enter and leave packets for users that came into
+     * or went out of view. Does nothing if interest management is not used for the field.
+     */
+    public void updateUserView(User user) {
+        if (interestManager == null) {
+            return;
+        }
+        final List<User> entered = new ArrayList<>();
+        final List<User> left = new ArrayList<>();
+        interestManager.updateUser(user, entered, left);
+        for (User other : left) {
+            writeUserLeaveField(user, other);
+            writeUserLeaveField(other, user);
+        }
+        for (User other : entered) {
+            writeUserEnterField(user, other);
+            writeUserEnterField(other, user);
+        }
+    }
+
+
     // CONTROLLER METHODS ----------------------------------------------------------------------------------------------
 
     public void assignController(ControlledObject controlled) {
@@ -324,14 +351,43 @@ public final class UserPool extends FieldObjectPool<User> {
     }
 
     public void broadcastPacket(OutPacket outPacket, User except) {
+        final EncodedPacket broadcastPacket = BroadcastPacket.from(outPacket);
         forEach((user) -> {
             if (except != null && user.getCharacterId() == except.getCharacterId()) {
                 return;
             }
-            user.write(outPacket);
+            user.write(broadcastPacket);
         });
     }
 
+    /**
+     * Broadcasts a packet about the user to the users that can see the user, not including the user. Falls back to
+     * {@link #broadcastPacket(OutPacket, User)} if interest management is not used for the field.
+     */
+    public void broadcastNearbyPacket(OutPacket outPacket, User user) {
+        broadcastNearbyPacket(outPacket, user, false);
+    }
+
+    /**
+     * Broadcasts a packet about the user to the users that can see the user. Packets that are keyed by the character ID
+     * of the user, such as chat, effects and avatar changes, are ignored by clients that have not spawned the user, so
+     * they are only sent to nearby users. Users that come into view later receive the current state with the enter
+     * field packets.
+     */
+    public void broadcastNearbyPacket(OutPacket outPacket, User user, boolean includeUser) {
+        if (interestManager == null) {
+            broadcastPacket(outPacket, includeUser ? null : user);
+            return;
+        }
+        final EncodedPacket broadcastPacket = BroadcastPacket.from(outPacket);
+        if (includeUser) {
+            user.write(broadcastPacket);
+        }
+        for (User observer : interestManager.getObservers(user)) {
+            observer.write(broadcastPacket);
+        }
+    }
+
     public Optional<User> getNearestUser(FieldObject fieldObject) {
         return fieldObject.getNearestObject(getObjects());
     }
@@ -349,6 +405,39 @@ public final class UserPool extends FieldObjectPool<User> {
         return members;
     }
 
+    private void writeUserEnterField(User user, User existingUser) {
+        try (var locked = existingUser.acquire()) {
+            user.write(UserPacket.userEnterField(locked.get()));
+            for (Pet pet : existingUser.getPets()) {
+                user.write(PetPacket.petActivated(existingUser, pet));
+            }
+            for (List<Summoned> summonedList : existingUser.getSummoned().values()) {
+                for (Summoned summoned : summonedList) {
+                    user.write(SummonedPacket.summonedEnterField(existingUser, summoned));
+                }
+            }
+            if (existingUser.getDragon() != null) {
+                user.write(DragonPacket.dragonEnterField(existingUser, existingUser.getDragon()));
+            }
+            if (existingUser.getOpenGate() != null) {
+                user.write(FieldPacket.openGateCreated(existingUser, existingUser.getOpenGate(), false));
+                if (existingUser.getOpenGate().getSecondGate() != null) {
+                    user.write(FieldPacket.openGateCreated(existingUser, existingUser.getOpenGate().getSecondGate(), false));
+                }
+            }
+        }
+    }
+
+    private void writeUserLeaveField(User user, User existingUser) {
+        // Pets and dragon are removed with the user, summoned are removed separately
+        for (List<Summoned> summonedList : existingUser.getSummoned().values()) {
+            for (Summoned summoned : summonedList) {
+                user.write(SummonedPacket.summonedLeaveField(existingUser, summoned));
+            }
+        }
+        user.write(UserPacket.userLeaveField(existingUser));
+    }
+
     /**
      * Does not include user.
      */
@@ -1,25 +1,55 @@
 package kinoko.world.field.life;
 
 import kinoko.server.packet.InPacket;
+import kinoko.server.packet.NioBufferInPacket;
 import kinoko.server.packet.OutPacket;
 import kinoko.util.Encodable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Movement path of a {@link Life}. Paths decoded from a client packet keep the original bytes, which are written back
+ * as-is when the path is broadcast, and only the final position, foothold and action are read when decoding. The
+ * {@link MoveElem} list is only created if {@link #getElems()} is called.
+ */
 public final class MovePath implements Encodable {
+    private static final int MAX_SIZE = 9 + 0xFF * 20; // header + 255 * largest element
+    private static final ThreadLocal<byte[]> decodeBuffer = ThreadLocal.withInitial(() -> new byte[MAX_SIZE]);
     private final short x;
     private final short y;
     private final short vx;
     private final short vy;
-    private final List<MoveElem> moveElems;
+    private final byte[] data; // path as received from the client, null if created from elements
+    private List<MoveElem> moveElems;
+    // Final state after the path, applied by applyTo
+    private boolean hasPosition;
+    private boolean hasFoothold;
+    private boolean hasMoveAction;
+    private int lastX;
+    private int lastY;
+    private int lastFh;
+    private int lastMoveAction;
 
     public MovePath(short x, short y, short vx, short vy, List<MoveElem> moveElems) {
         this.x = x;
         this.y = y;
         this.vx = vx;
         this.vy = vy;
+        this.data = null;
         this.moveElems = moveElems;
+        for (MoveElem elem : moveElems) {
+            updateLastState(elem.getAttr(), elem.getX(), elem.getY(), elem.getFh(), elem.getMoveAction());
+        }
+    }
+
+    private MovePath(byte[] data) {
+        this.x = getShort(data, 0);
+        this.y = getShort(data, 2);
+        this.vx = getShort(data, 4);
+        this.vy = getShort(data, 6);
+        this.data = data;
     }
 
     public short getX() {
@@ -39,38 +69,60 @@ public final class MovePath implements Encodable {
     }
 
     public List<MoveElem> getElems() {
+        if (moveElems == null) {
+            moveElems = decodeElems(new NioBufferInPacket(data), x, y, vx, vy);
+        }
         return moveElems;
     }
 
     public int getDuration() {
-        return moveElems.stream().mapToInt(MoveElem::getElapse).sum();
+        return getElems().stream().mapToInt(MoveElem::getElapse).sum();
     }
 
     public void applyTo(Life life) {
-        for (MoveElem elem : getElems()) {
-            switch (MoveType.fromAttr(elem.getAttr())) {
-                case NORMAL, TELEPORT -> {
-                    life.setX(elem.getX());
-                    life.setY(elem.getY());
-                    life.setFoothold(elem.getFh());
-                }
-                case JUMP, START_FALL_DOWN, FLYING_BLOCK -> {
-                    life.setX(elem.getX());
-                    life.setY(elem.getY());
-                }
-                case STAT_CHANGE -> {
-                    continue;
-                }
-                case ACTION -> {
-                    // noop
-                }
+        if (hasPosition) {
+            life.setX(lastX);
+            life.setY(lastY);
+        }
+        if (hasFoothold) {
+            life.setFoothold(lastFh);
+        }
+        if (hasMoveAction) {
+            life.setMoveAction(lastMoveAction);
+        }
+    }
+
+    private void updateLastState(byte attr, int elemX, int elemY, int elemFh, int elemMoveAction) {
+        switch (MoveType.fromAttr(attr)) {
+            case NORMAL, TELEPORT -> {
+                hasPosition = true;
+                hasFoothold = true;
+                lastX = elemX;
+                lastY = elemY;
+                lastFh = elemFh;
+            }
+            case JUMP, START_FALL_DOWN, FLYING_BLOCK -> {
+                hasPosition = true;
+                lastX = elemX;
+                lastY = elemY;
+            }
+            case STAT_CHANGE -> {
+                return;
+            }
+            case ACTION -> {
+                // noop
             }
-            life.setMoveAction(elem.getMoveAction());
         }
+        hasMoveAction = true;
+        lastMoveAction = elemMoveAction;
     }
 
     @Override
     public void encode(OutPacket outPacket) {
+        if (data != null) {
+            outPacket.encodeArray(data);
+            return;
+        }
         outPacket.encodeShort(getX());
         outPacket.encodeShort(getY());
         outPacket.encodeShort(getVx());
@@ -126,12 +178,61 @@ public final class MovePath implements Encodable {
         // Follow Mode: if (bPassive) byte * byte, short, short, short, short
     }
 
+    /**
+     * Decodes the path into a copy of the received bytes. The elements are only scanned to find the end of the path and
+     * the final state, {@link MoveElem} instances are not created.
+     */
     public static MovePath decode(InPacket inPacket) {
-        final short x = inPacket.decodeShort();
-        final short y = inPacket.decodeShort();
-        final short vx = inPacket.decodeShort();
-        final short vy = inPacket.decodeShort();
+        final byte[] buffer = decodeBuffer.get();
+        inPacket.decodeArray(buffer, 0, 9); // x, y, vx, vy, count
+        final short x = getShort(buffer, 0);
+        final short y = getShort(buffer, 2);
+        final int count = buffer[8] & 0xFF;
+        final int[] elemOffsets = new int[count];
+        int offset = 9;
+        for (int i = 0; i < count; i++) {
+            elemOffsets[i] = offset;
+            inPacket.decodeArray(buffer, offset, 1); // nAttr
+            final byte attr = buffer[offset];
+            final int length = switch (MoveType.fromAttr(attr)) {
+                case NORMAL -> (attr == 12 ? 16 : 14) + 3; // FALL_DOWN has fhFallStart
+                case JUMP -> 4 + 3;
+                case TELEPORT, START_FALL_DOWN -> 6 + 3;
+                case STAT_CHANGE -> 1; // moveAction and elapse not encoded
+                case FLYING_BLOCK -> 8 + 3;
+                case ACTION -> 3; // bMoveAction, tElapse
+            };
+            inPacket.decodeArray(buffer, offset + 1, length);
+            offset += 1 + length;
+        }
+        final MovePath movePath = new MovePath(Arrays.copyOf(buffer, offset));
+        for (int elemOffset : elemOffsets) {
+            movePath.updateLastState(buffer, elemOffset, x, y);
+        }
+        return movePath;
+    }
 
+    private void updateLastState(byte[] buffer, int offset, short x, short y) {
+        final byte attr = buffer[offset];
+        final int data = offset + 1;
+        switch (MoveType.fromAttr(attr)) {
+            case NORMAL -> {
+                final int lengthBeforeAction = attr == 12 ? 16 : 14;
+                updateLastState(attr, getShort(buffer, data), getShort(buffer, data + 2), getShort(buffer, data + 8), buffer[data + lengthBeforeAction]);
+            }
+            case JUMP -> updateLastState(attr, x, y, 0, buffer[data + 4]);
+            case TELEPORT -> updateLastState(attr, getShort(buffer, data), getShort(buffer, data + 2), getShort(buffer, data + 4), buffer[data + 6]);
+            case STAT_CHANGE -> {
+                // noop
+            }
+            case START_FALL_DOWN -> updateLastState(attr, x, y, 0, buffer[data + 6]);
+            case FLYING_BLOCK -> updateLastState(attr, getShort(buffer, data), getShort(buffer, data + 2), 0, buffer[data + 8]);
+            case ACTION -> updateLastState(attr, x, y, 0, buffer[data]);
+        }
+    }
+
+    private static List<MoveElem> decodeElems(InPacket inPacket, short x, short y, short vx, short vy) {
+        inPacket.decodeArray(8); // x, y, vx, vy
         final List<MoveElem> moveElems = new ArrayList<>();
         final int count = inPacket.decodeByte();
         for (int i = 0; i < count; i++) {
@@ -193,7 +294,11 @@ public final class MovePath implements Encodable {
             // if (CClientOptMan::GetOpt(2)) short (usRandCnt), short (usActualRandCnt)
             moveElems.add(elem);
         }
-        return new MovePath(x, y, vx, vy, moveElems);
+        return moveElems;
+    }
+
+    private static short getShort(byte[] buffer, int offset) {
+        return (short) ((buffer[offset] & 0xFF) | (buffer[offset + 1] << 8));
     }
 
     private enum MoveType {
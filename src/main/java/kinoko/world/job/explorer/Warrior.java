@@ -195,7 +195,7 @@ public final class Warrior extends SkillProcessor {
                 final int hpRecovery = user.getMaxHp() * si.getValue(SkillStat.x, slv) / 100;
                 user.addHp(hpRecovery);
                 user.write(UserLocal.effect(Effect.incDecHpEffect(hpRecovery)));
-                field.broadcastPacket(UserRemote.effect(user, Effect.incDecHpEffect(hpRecovery)), user);
+                field.broadcastNearbyPacket(UserRemote.effect(user, Effect.incDecHpEffect(hpRecovery)), user);
                 return;
             case COMBAT_ORDERS:
                 user.setTemporaryStat(CharacterTemporaryStat.CombatOrders, TemporaryStatOption.of(si.getValue(SkillStat.x, slv), skillId, si.getDuration(slv)));
@@ -233,7 +233,7 @@ public final class Warrior extends SkillProcessor {
                 final int healAmount = si.getValue(SkillStat.hp, slv);
                 user.addHp(healAmount);
                 user.write(UserLocal.effect(Effect.incDecHpEffect(healAmount)));
-                field.broadcastPacket(UserRemote.effect(user, Effect.incDecHpEffect(healAmount)), user);
+                field.broadcastNearbyPacket(UserRemote.effect(user, Effect.incDecHpEffect(healAmount)), user);
                 handleBeholderEffect(user);
                 return;
             case HEX_OF_THE_BEHOLDER:
@@ -286,7 +286,7 @@ public final class Warrior extends SkillProcessor {
         }
         final Effect berserkEffect = Effect.skillUseEnable(skillId, slv, user.getLevel(), isBerserkEffect(user));
         user.write(UserLocal.effect(berserkEffect));
-        user.getField().broadcastPacket(UserRemote.effect(user, berserkEffect), user);
+        user.getField().broadcastNearbyPacket(UserRemote.effect(user, berserkEffect), user);
     }
 
     public static boolean isBerserkEffect(User user) {
@@ -309,6 +309,6 @@ public final class Warrior extends SkillProcessor {
         final int skillId = Warrior.BEHOLDER;
         final Effect beholderEffect = Effect.skillAffected(skillId, user.getSkillLevel(skillId));
         user.write(UserLocal.effect(beholderEffect));
-        user.getField().broadcastPacket(UserRemote.effect(user, beholderEffect), user);
+        user.getField().broadcastNearbyPacket(UserRemote.effect(user, beholderEffect), user);
     }
 }
@@ -152,7 +152,7 @@ public final class Evan extends SkillProcessor {
         }
         final Effect berserkEffect = Effect.skillUseEnable(skillId, slv, user.getLevel(), isDragonFury(user));
         user.write(UserLocal.effect(berserkEffect));
-        user.getField().broadcastPacket(UserRemote.effect(user, berserkEffect), user);
+        user.getField().broadcastNearbyPacket(UserRemote.effect(user, berserkEffect), user);
     }
 
     public static boolean isDragonFury(User user) {
@@ -128,7 +128,7 @@ public final class Mechanic extends SkillProcessor {
             case ROLL_OF_THE_DICE:
                 final int roll = Util.getRandom(1, 6);
                 user.write(UserLocal.effect(Effect.skillAffectedSelect(roll, skillId, slv)));
-                field.broadcastPacket(UserRemote.effect(user, Effect.skillAffectedSelect(roll, skillId, slv)), user);
+                field.broadcastNearbyPacket(UserRemote.effect(user, Effect.skillAffectedSelect(roll, skillId, slv)), user);
                 if (roll != 1) {
                     final DiceInfo diceInfo = DiceInfo.from(roll, si, slv);
                     user.setTemporaryStat(CharacterTemporaryStat.Dice, TemporaryStatOption.ofDice(roll, skillId, si.getDuration(slv), diceInfo));
@@ -181,7 +181,7 @@ public final class Mechanic extends SkillProcessor {
                     for (int i = 0; i < 3; i++) {
                         rockAndShockList.get(i).setTeslaCoilState(2 - (i == 0 ? 1 : 0));
                     }
-                    field.broadcastPacket(UserPacket.userTeslaTriangle(user, rockAndShockList));
+                    field.broadcastNearbyPacket(UserPacket.userTeslaTriangle(user, rockAndShockList), user, true);
                     user.setSkillCooltime(skillId, si.getValue(SkillStat.cooltime, slv));
                 }
                 return;
@@ -219,7 +219,7 @@ public final class Mechanic extends SkillProcessor {
                     final int healAmount = user.getMaxHp() * si.getValue(SkillStat.hp, slv) / 100;
                     user.addHp(healAmount);
                     user.write(UserLocal.effect(Effect.incDecHpEffect(healAmount)));
-                    user.getField().broadcastPacket(UserRemote.effect(user, Effect.incDecHpEffect(healAmount)), user);
+                    user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.incDecHpEffect(healAmount)), user);
                 } else {
                     // Create summoned
                     final Summoned healingRobot = Summoned.from(skillId, slv, SummonedMoveAbility.STOP, SummonedAssistType.HEAL, Instant.now().plus(summonDuration, ChronoUnit.MILLIS));
@@ -201,7 +201,7 @@ public abstract class SkillProcessor {
                     try (var lockedOther = other.acquire()) {
                         other.setTemporaryStat(CharacterTemporaryStat.MaxLevelBuff, TemporaryStatOption.of(si.getValue(SkillStat.x, slv), skillId, si.getDuration(slv)));
                         other.write(UserLocal.effect(Effect.skillAffected(skill.skillId, skill.slv)));
-                        field.broadcastPacket(UserRemote.effect(other, Effect.skillAffected(skill.skillId, skill.slv)), other);
+                        field.broadcastNearbyPacket(UserRemote.effect(other, Effect.skillAffected(skill.skillId, skill.slv)), other);
                     }
                 });
                 return;
@@ -552,7 +552,7 @@ public abstract class SkillProcessor {
             final int hpRecovery = option.nOption;
             user.addHp(hpRecovery);
             user.write(UserLocal.effect(Effect.incDecHpEffect(hpRecovery)));
-            user.getField().broadcastPacket(UserRemote.effect(user, Effect.incDecHpEffect(hpRecovery)), user);
+            user.getField().broadcastNearbyPacket(UserRemote.effect(user, Effect.incDecHpEffect(hpRecovery)), user);
             user.getSkillManager().setSkillSchedule(skillId, now.plus(5, ChronoUnit.SECONDS));
         }
     }
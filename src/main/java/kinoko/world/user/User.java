@@ -20,6 +20,7 @@ import kinoko.server.dialog.miniroom.TradingRoom;
 import kinoko.server.guild.GuildRank;
 import kinoko.server.node.ChannelServerNode;
 import kinoko.server.node.Client;
+import kinoko.server.packet.EncodedPacket;
 import kinoko.server.packet.OutPacket;
 import kinoko.server.party.PartyRequest;
 import kinoko.util.BitFlag;
@@ -404,7 +405,7 @@ public final class User extends Life implements Lockable<User> {
         write(WvsContext.statChanged(addExpResult, true));
         // Level up
         if (addExpResult.containsKey(Stat.LEVEL)) {
-            getField().broadcastPacket(UserRemote.effect(this, Effect.levelUp()), this);
+            getField().broadcastNearbyPacket(UserRemote.effect(this, Effect.levelUp()), this);
             validateStat();
             setHp(getMaxHp());
             setMp(getMaxMp());
@@ -483,7 +484,7 @@ public final class User extends Life implements Lockable<User> {
         final BitFlag<CharacterTemporaryStat> flag = BitFlag.from(setStats.keySet(), CharacterTemporaryStat.FLAG_SIZE);
         if (!flag.isEmpty()) {
             write(WvsContext.temporaryStatSet(getSecondaryStat(), flag));
-            getField().broadcastPacket(UserRemote.temporaryStatSet(this, getSecondaryStat(), flag), this);
+            getField().broadcastNearbyPacket(UserRemote.temporaryStatSet(this, getSecondaryStat(), flag), this);
         }
     }
 
@@ -503,7 +504,7 @@ public final class User extends Life implements Lockable<User> {
             final BitFlag<CharacterTemporaryStat> flag = BitFlag.from(resetStats, CharacterTemporaryStat.FLAG_SIZE);
             if (!flag.isEmpty()) {
                 write(WvsContext.temporaryStatReset(flag));
-                getField().broadcastPacket(UserRemote.temporaryStatReset(this, flag), this);
+                getField().broadcastNearbyPacket(UserRemote.temporaryStatReset(this, flag), this);
             }
         }
     }
@@ -741,7 +742,7 @@ public final class User extends Life implements Lockable<User> {
         getConnectedServer().notifyUserUpdate(this);
     }
 
-    public void write(OutPacket outPacket) {
+    public void write(EncodedPacket outPacket) {
         getClient().write(outPacket);
     }
 
@@ -0,0 +1,64 @@
+package kinoko.server.netty;
+
+import kinoko.server.header.InHeader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public final class FloodControlTest {
+    @Test
+    public void testHeaderLimit() {
+        final FloodControl floodControl = new FloodControl();
+        final long now = System.nanoTime();
+        // UserChat : 5 per second, burst of 10
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, floodControl.tryAcquire(InHeader.UserChat, now));
+        }
+        final long delay = floodControl.tryAcquire(InHeader.UserChat, now);
+        Assertions.assertTrue(delay > 0 && delay <= TimeUnit.MILLISECONDS.toNanos(200));
+        // Other headers only consume from the client bucket
+        Assertions.assertEquals(0, floodControl.tryAcquire(InHeader.UserMove, now));
+        // Tokens are refilled over time
+        Assertions.assertEquals(0, floodControl.tryAcquire(InHeader.UserChat, now + delay));
+        Assertions.assertTrue(floodControl.tryAcquire(InHeader.UserChat, now + delay) > 0);
+    }
+
+    @Test
+    public void testClientLimit() {
+        final FloodControl floodControl = new FloodControl();
+        final long now = System.nanoTime();
+        // Default client limit : 200 per second, burst of 400
+        for (int i = 0; i < 400; i++) {
+            Assertions.assertEquals(0, floodControl.tryAcquire(InHeader.UserSelectNpc, now));
+        }
+        Assertions.assertTrue(floodControl.tryAcquire(InHeader.UserSelectNpc, now) > 0);
+        Assertions.assertTrue(floodControl.tryAcquire(InHeader.UserChat, now) > 0);
+        Assertions.assertEquals(0, floodControl.tryAcquire(InHeader.UserSelectNpc, now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testMobMove() {
+        final FloodControl floodControl = new FloodControl();
+        final long now = System.nanoTime();
+        // MobMove is sent for every controlled mob, only the client limit applies
+        for (int i = 0; i < 400; i++) {
+            Assertions.assertEquals(0, floodControl.tryAcquire(InHeader.MobMove, now));
+        }
+        Assertions.assertTrue(floodControl.tryAcquire(InHeader.MobMove, now) > 0);
+    }
+
+    @Test
+    public void testParseLimits() {
+        final Map<InHeader, FloodControl.Limit> limits = new EnumMap<>(InHeader.class);
+        limits.put(InHeader.UserChat, new FloodControl.Limit(-1, 5, 10, FloodControl.Policy.DROP));
+        limits.put(InHeader.UserMove, new FloodControl.Limit(-1, 30, 60, FloodControl.Policy.DROP));
+        FloodControl.parseLimits(limits, "UserChat:10:20:DELAY, UserMove:0, Whisper:3, Unknown:1, UserEmotion");
+        Assertions.assertEquals(new FloodControl.Limit(-1, 10, 20, FloodControl.Policy.DELAY), limits.get(InHeader.UserChat));
+        Assertions.assertFalse(limits.containsKey(InHeader.UserMove));
+        Assertions.assertEquals(new FloodControl.Limit(-1, 3, 6, FloodControl.Policy.DROP), limits.get(InHeader.Whisper));
+        Assertions.assertEquals(2, limits.size());
+    }
+}
@@ -0,0 +1,92 @@
+package kinoko.server.netty;
+
+import kinoko.server.header.OutHeader;
+import kinoko.server.packet.EncodedPacket;
+import kinoko.server.packet.OutPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public final class OutboundQueueTest {
+    @Test
+    public void testSuperseded() {
+        final OutboundQueue outboundQueue = new OutboundQueue();
+        final OutPacket firstMove = createPacket(OutHeader.UserMove, 1);
+        final OutPacket secondMove = createPacket(OutHeader.UserMove, 1);
+        final OutPacket otherMove = createPacket(OutHeader.UserMove, 2);
+        final OutPacket hp = createPacket(OutHeader.UserHP, 1);
+        Assertions.assertTrue(outboundQueue.offer(firstMove));
+        Assertions.assertTrue(outboundQueue.offer(otherMove));
+        Assertions.assertTrue(outboundQueue.offer(secondMove));
+        Assertions.assertTrue(outboundQueue.offer(hp));
+        Assertions.assertEquals(3, outboundQueue.getHeldCount());
+
+        // Packets that cannot be superseded are never held
+        Assertions.assertFalse(outboundQueue.offer(createPacket(OutHeader.StatChanged, 1)));
+        Assertions.assertFalse(outboundQueue.offer(createPacket(OutHeader.InventoryOperation, 1)));
+
+        final List<EncodedPacket> drained = outboundQueue.drain();
+        Assertions.assertEquals(List.of(secondMove, otherMove, hp), drained);
+        Assertions.assertEquals(0, outboundQueue.getHeldCount());
+    }
+
+    @Test
+    public void testSupersededSecondaryId() {
+        final OutboundQueue outboundQueue = new OutboundQueue();
+        final OutPacket firstPet = createPacket(OutHeader.PetMove, 1, 0);
+        final OutPacket secondPet = createPacket(OutHeader.PetMove, 1, 1);
+        final OutPacket firstSummoned = createPacket(OutHeader.SummonedMove, 1, 100);
+        final OutPacket secondSummoned = createPacket(OutHeader.SummonedMove, 1, 200);
+        final OutPacket nextSummoned = createPacket(OutHeader.SummonedMove, 1, 100);
+        Assertions.assertTrue(outboundQueue.offer(firstPet));
+        Assertions.assertTrue(outboundQueue.offer(secondPet));
+        Assertions.assertTrue(outboundQueue.offer(firstSummoned));
+        Assertions.assertTrue(outboundQueue.offer(secondSummoned));
+        Assertions.assertTrue(outboundQueue.offer(nextSummoned));
+
+        // Each pet and summoned of the same character is held separately
+        Assertions.assertEquals(List.of(firstPet, secondPet, nextSummoned, secondSummoned), outboundQueue.drain());
+    }
+
+    @Test
+    public void testWrittenAfterHeld() {
+        final OutboundQueue outboundQueue = new OutboundQueue();
+        final OutPacket move = createPacket(OutHeader.MobMove, 1);
+        final OutPacket hp = createPacket(OutHeader.MobHPIndicator, 1);
+        final OutPacket leave = createPacket(OutHeader.MobLeaveField, 1);
+        Assertions.assertEquals(List.of(), outboundQueue.submit(move, false));
+        Assertions.assertEquals(List.of(), outboundQueue.submit(hp, false));
+
+        // Held packets are written before a packet that cannot be superseded, such as the mob leaving the field
+        Assertions.assertEquals(List.of(move, hp, leave), outboundQueue.submit(leave, false));
+        Assertions.assertEquals(0, outboundQueue.getHeldCount());
+        Assertions.assertEquals(List.of(move), outboundQueue.submit(move, true));
+    }
+
+    @Test
+    public void testUnwritable() {
+        final OutboundQueue outboundQueue = new OutboundQueue();
+        final long since = outboundQueue.onUnwritable(100);
+        Assertions.assertEquals(since, outboundQueue.onUnwritable(200));
+        Assertions.assertTrue(outboundQueue.isUnwritableSince(since));
+        outboundQueue.onWritable();
+        Assertions.assertFalse(outboundQueue.isUnwritableSince(since));
+        Assertions.assertNotEquals(since, outboundQueue.onUnwritable(300));
+    }
+
+    private static OutPacket createPacket(OutHeader header, int objectId) {
+        return createPacket(header, objectId, 0);
+    }
+
+    private static OutPacket createPacket(OutHeader header, int objectId, int subId) {
+        final OutPacket outPacket = OutPacket.of(header);
+        outPacket.encodeInt(objectId);
+        if (header == OutHeader.PetMove) {
+            outPacket.encodeByte(subId);
+        } else {
+            outPacket.encodeInt(subId);
+        }
+        return outPacket;
+    }
+}
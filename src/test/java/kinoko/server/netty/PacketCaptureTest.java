@@ -0,0 +1,42 @@
+package kinoko.server.netty;
+
+import kinoko.server.packet.NioBufferInPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+public final class PacketCaptureTest {
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Path directory = Files.createTempDirectory("capture");
+        final Path path = directory.resolve("test" + PacketCapture.FILE_EXTENSION);
+        final byte[][] packets = {
+                new byte[]{ 0x14, 0x00, 0x01, 0x02, 0x03 },
+                new byte[]{ 0x2C, 0x00 },
+                new byte[300],
+        };
+        final PacketCapture capture = PacketCapture.create(path);
+        for (byte[] packet : packets) {
+            capture.record(new NioBufferInPacket(packet));
+        }
+        capture.close().get(5, TimeUnit.SECONDS);
+
+        try (final PacketCapture.Reader reader = new PacketCapture.Reader(path)) {
+            long lastTime = 0;
+            for (byte[] packet : packets) {
+                final PacketCapture.Record record = reader.next();
+                Assertions.assertNotNull(record);
+                Assertions.assertArrayEquals(packet, record.data());
+                Assertions.assertTrue(record.time() >= lastTime);
+                lastTime = record.time();
+            }
+            Assertions.assertNull(reader.next());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package kinoko.server.node;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public final class ExecutorBalancerTest {
+    @Test
+    public void testMigrate() {
+        final FieldPlacement busy = createPlacement(1, 0, 60, false);
+        final FieldPlacement other = createPlacement(2, 0, 30, false);
+        final FieldPlacement pinned = createPlacement(3, 1, 10, true);
+        final double[] executorLoads = new double[]{ 90, 10 };
+        Assertions.assertEquals(List.of(other), ExecutorBalancer.migrate(List.of(busy, other, pinned), executorLoads, 10));
+        // Moving the busy field would overshoot, the other field evens out the executors
+        Assertions.assertEquals(0, busy.getExecutorIndex());
+        Assertions.assertEquals(1, other.getExecutorIndex());
+        Assertions.assertArrayEquals(new double[]{ 60, 40 }, executorLoads);
+    }
+
+    @Test
+    public void testPendingTasks() {
+        final FieldPlacement placement = createPlacement(1, 0, 50, false);
+        Assertions.assertEquals(0, placement.acquire());
+        Assertions.assertEquals(List.of(), ExecutorBalancer.migrate(List.of(placement), new double[]{ 80, 0 }, 10));
+        placement.release();
+        Assertions.assertEquals(List.of(placement), ExecutorBalancer.migrate(List.of(placement), new double[]{ 80, 0 }, 10));
+        Assertions.assertEquals(1, placement.acquire());
+    }
+
+    private static FieldPlacement createPlacement(int fieldId, int executorIndex, double load, boolean pinned) {
+        final FieldPlacement placement = new FieldPlacement(fieldId, executorIndex, pinned);
+        placement.setLoad(load);
+        return placement;
+    }
+}
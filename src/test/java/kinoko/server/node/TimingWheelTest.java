@@ -0,0 +1,49 @@
+package kinoko.server.node;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public final class TimingWheelTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testExpire() {
+        final TimingWheel timingWheel = new TimingWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        final TimingWheel.Timeout first = createTimeout(25 * MILLIS);
+        final TimingWheel.Timeout second = createTimeout(30 * MILLIS);
+        final TimingWheel.Timeout later = createTimeout(105 * MILLIS); // more than one rotation
+        final TimingWheel.Timeout cancelled = createTimeout(30 * MILLIS);
+        timingWheel.add(later);
+        timingWheel.add(first);
+        timingWheel.add(second);
+        timingWheel.add(cancelled);
+        cancelled.cancel();
+        Assertions.assertEquals(4, timingWheel.getSize());
+
+        Assertions.assertEquals(List.of(), timingWheel.advance(20 * MILLIS));
+        Assertions.assertEquals(List.of(first, second), timingWheel.advance(30 * MILLIS));
+        Assertions.assertEquals(1, timingWheel.getSize());
+        Assertions.assertEquals(List.of(), timingWheel.advance(100 * MILLIS));
+        Assertions.assertEquals(List.of(later), timingWheel.advance(110 * MILLIS));
+        Assertions.assertEquals(0, timingWheel.getSize());
+        Assertions.assertEquals(120 * MILLIS, timingWheel.getNextTickTime());
+    }
+
+    @Test
+    public void testPastDeadline() {
+        final TimingWheel timingWheel = new TimingWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        timingWheel.advance(50 * MILLIS);
+        final TimingWheel.Timeout timeout = createTimeout(0);
+        timingWheel.add(timeout);
+        Assertions.assertEquals(List.of(timeout), timingWheel.advance(60 * MILLIS));
+    }
+
+    private static TimingWheel.Timeout createTimeout(long deadline) {
+        final TimingWheel.Timeout timeout = new TimingWheel.Timeout();
+        timeout.setDeadline(deadline);
+        return timeout;
+    }
+}
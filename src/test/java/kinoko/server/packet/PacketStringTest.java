@@ -0,0 +1,35 @@
+package kinoko.server.packet;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class PacketStringTest {
+    @Test
+    public void testEncodeDecode() {
+        final OutPacket outPacket = OutPacket.of();
+        outPacket.encodeString("Kinoko", 13);
+        outPacket.encodeString("TooLongForFixedLength", 4);
+        outPacket.encodeString("hello world");
+        outPacket.encodeString("café");
+        final byte[] data = outPacket.getData();
+        Assertions.assertEquals(13 + 4 + 2 + 11 + 2 + 4, data.length);
+
+        final InPacket nioPacket = new NioBufferInPacket(data);
+        final InPacket byteBufPacket = new ByteBufInPacket(Unpooled.wrappedBuffer(data));
+        for (InPacket inPacket : new InPacket[]{ nioPacket, byteBufPacket }) {
+            Assertions.assertEquals("Kinoko\0\0\0\0\0\0\0", inPacket.decodeString(13));
+            Assertions.assertEquals("TooL", inPacket.decodeString(4));
+            Assertions.assertEquals("hello world", inPacket.decodeString());
+            Assertions.assertEquals("caf?", inPacket.decodeString());
+        }
+    }
+
+    @Test
+    public void testCache() {
+        final byte[] data = "name".getBytes();
+        final String first = StringCache.decode(data, 0, data.length);
+        Assertions.assertSame(first, StringCache.decode(data.clone(), 0, data.length));
+        Assertions.assertEquals("", StringCache.decode(data, 0, 0));
+    }
+}
@@ -0,0 +1,50 @@
+package kinoko.util.crypto;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public final class MapleCryptoTest {
+    private static final byte[] IV = new byte[]{ 0x12, 0x34, 0x56, 0x78 };
+
+    private static byte[] getData(int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    public void testCrypt() {
+        final byte[] data = getData(3000);
+        MapleCrypto.crypt(data, IV);
+        // First segment
+        Assertions.assertArrayEquals(new byte[]{
+                (byte) 0xE2, 0x11, (byte) 0xC8, (byte) 0xFC, 0x0E, 0x66, 0x5C, 0x6D,
+                (byte) 0xCF, 0x3C, 0x1A, 0x17, (byte) 0xD7, 0x5E, (byte) 0xFB, 0x79
+        }, Arrays.copyOfRange(data, 0, 16));
+        // Second segment restarts the keystream
+        Assertions.assertArrayEquals(new byte[]{
+                0x52, (byte) 0xA1, 0x78, 0x4C, (byte) 0xBE, (byte) 0xD6, (byte) 0xEC, (byte) 0xDD
+        }, Arrays.copyOfRange(data, 0x5B0, 0x5B0 + 8));
+        // Last segment
+        Assertions.assertArrayEquals(new byte[]{
+                (byte) 0x93, (byte) 0xF8, (byte) 0xF6, 0x10, (byte) 0xC2, (byte) 0x81, (byte) 0xAC, 0x02, (byte) 0xC1, (byte) 0x94
+        }, Arrays.copyOfRange(data, 2990, 3000));
+    }
+
+    @Test
+    public void testCryptRange() {
+        final byte[] data = getData(3000);
+        final byte[] expected = data.clone();
+        MapleCrypto.crypt(expected, IV);
+        final byte[] buffer = new byte[data.length + 8];
+        System.arraycopy(data, 0, buffer, 4, data.length);
+        MapleCrypto.crypt(buffer, 4, data.length, IV);
+        Assertions.assertArrayEquals(expected, Arrays.copyOfRange(buffer, 4, 4 + data.length));
+        MapleCrypto.crypt(buffer, 4, data.length, IV);
+        Assertions.assertArrayEquals(data, Arrays.copyOfRange(buffer, 4, 4 + data.length));
+    }
+}
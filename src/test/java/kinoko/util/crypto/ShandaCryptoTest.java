@@ -3,6 +3,8 @@ package kinoko.util.crypto;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 public final class ShandaCryptoTest {
     @Test
     public void testEnDecrypt() {
@@ -11,4 +13,33 @@ public final class ShandaCryptoTest {
         ShandaCrypto.decrypt(data);
         Assertions.assertArrayEquals(new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 }, data);
     }
+
+    @Test
+    public void testEncrypt() {
+        final byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        ShandaCrypto.encrypt(data);
+        Assertions.assertArrayEquals(new byte[]{
+                (byte) 0x01, (byte) 0x36, (byte) 0x85, (byte) 0x67, (byte) 0xEB, (byte) 0x1A, (byte) 0x4E, (byte) 0xB3,
+                (byte) 0x7D, (byte) 0x9D, (byte) 0x26, (byte) 0xD0, (byte) 0x11, (byte) 0x6D, (byte) 0xAC, (byte) 0xC8
+        }, Arrays.copyOfRange(data, 0, 16));
+    }
+
+    @Test
+    public void testEnDecryptRange() {
+        final byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        final byte[] expected = data.clone();
+        ShandaCrypto.encrypt(expected);
+        final byte[] buffer = new byte[data.length + 8];
+        System.arraycopy(data, 0, buffer, 4, data.length);
+        ShandaCrypto.encrypt(buffer, 4, data.length);
+        Assertions.assertArrayEquals(expected, Arrays.copyOfRange(buffer, 4, 4 + data.length));
+        ShandaCrypto.decrypt(buffer, 4, data.length);
+        Assertions.assertArrayEquals(data, Arrays.copyOfRange(buffer, 4, 4 + data.length));
+    }
 }
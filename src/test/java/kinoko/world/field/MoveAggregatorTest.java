@@ -0,0 +1,88 @@
+package kinoko.world.field;
+
+import kinoko.server.packet.OutPacket;
+import kinoko.world.field.life.MoveElem;
+import kinoko.world.field.life.MovePath;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MoveAggregatorTest {
+    @Test
+    public void testMerge() {
+        final MoveAggregator moveAggregator = new MoveAggregator(100);
+        final FieldObject object = new TestObject();
+        final List<MovePath> broadcast = new ArrayList<>();
+        moveAggregator.submit(object, createPath(0, 10), (path) -> record(broadcast, path), (outPacket) -> {
+        });
+        moveAggregator.submit(object, createPath(10, 20), (path) -> record(broadcast, path), (outPacket) -> {
+        });
+        Assertions.assertEquals(1, moveAggregator.getPendingCount());
+        Assertions.assertTrue(broadcast.isEmpty());
+
+        moveAggregator.update(1000);
+        Assertions.assertEquals(1, broadcast.size());
+        final MovePath merged = broadcast.getFirst();
+        Assertions.assertEquals(0, merged.getX());
+        Assertions.assertEquals(2, merged.getElems().size());
+        Assertions.assertEquals(20, merged.getElems().getLast().getX());
+
+        // Flushed at most once per interval
+        moveAggregator.submit(object, createPath(20, 30), (path) -> record(broadcast, path), (outPacket) -> {
+        });
+        moveAggregator.update(1050);
+        Assertions.assertEquals(1, broadcast.size());
+        moveAggregator.update(1100);
+        Assertions.assertEquals(2, broadcast.size());
+    }
+
+    @Test
+    public void testMergeKey() {
+        final MoveAggregator moveAggregator = new MoveAggregator(100);
+        final FieldObject object = new TestObject();
+        final List<MovePath> broadcast = new ArrayList<>();
+        final List<Long> broadcastKeys = new ArrayList<>();
+        for (long mergeKey : new long[]{1, 1, 2, 1}) {
+            moveAggregator.submit(object, createPath(0, 10), mergeKey, (path) -> {
+                broadcastKeys.add(mergeKey);
+                return record(broadcast, path);
+            }, (outPacket) -> {
+            });
+        }
+        // Paths with a different key are flushed instead of merged, so the action data of each submission is kept
+        Assertions.assertEquals(List.of(1L, 2L), broadcastKeys);
+        Assertions.assertEquals(2, broadcast.getFirst().getElems().size());
+        Assertions.assertEquals(1, broadcast.getLast().getElems().size());
+
+        moveAggregator.update(1000);
+        Assertions.assertEquals(List.of(1L, 2L, 1L), broadcastKeys);
+        Assertions.assertEquals(3, broadcast.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        final MoveAggregator moveAggregator = new MoveAggregator(0);
+        final List<MovePath> broadcast = new ArrayList<>();
+        moveAggregator.submit(new TestObject(), createPath(0, 10), (path) -> record(broadcast, path), (outPacket) -> {
+        });
+        Assertions.assertEquals(1, broadcast.size());
+        Assertions.assertEquals(0, moveAggregator.getPendingCount());
+    }
+
+    private static OutPacket record(List<MovePath> broadcast, MovePath movePath) {
+        broadcast.add(movePath);
+        return OutPacket.of(new byte[0]);
+    }
+
+    private static MovePath createPath(int fromX, int toX) {
+        final MoveElem elem = new MoveElem((byte) 0);
+        elem.setX((short) toX);
+        elem.setElapse((short) 100);
+        return new MovePath((short) fromX, (short) 0, (short) 0, (short) 0, List.of(elem));
+    }
+
+    private static final class TestObject extends FieldObjectImpl {
+    }
+}
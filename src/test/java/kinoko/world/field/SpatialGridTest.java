@@ -0,0 +1,49 @@
+package kinoko.world.field;
+
+import kinoko.util.Rect;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public final class SpatialGridTest {
+    @Test
+    public void testInsideRect() {
+        final SpatialGrid<TestObject> grid = new SpatialGrid<>(100, 100);
+        final TestObject a = new TestObject(1, 0, 0);
+        final TestObject b = new TestObject(2, 150, -50);
+        final TestObject c = new TestObject(3, -250, 0);
+        grid.add(a);
+        grid.add(b);
+        grid.add(c);
+        Assertions.assertEquals(Set.of(1, 2), getInsideRect(grid, new Rect(-100, -100, 200, 100)));
+        Assertions.assertEquals(Set.of(1, 3), getInsideRect(grid, new Rect(-300, -10, 10, 10)));
+
+        // Move object to another cell
+        b.setX(-260);
+        Assertions.assertTrue(grid.update(b));
+        Assertions.assertFalse(grid.update(b));
+        Assertions.assertEquals(Set.of(1), getInsideRect(grid, new Rect(-100, -100, 200, 100)));
+        Assertions.assertEquals(Set.of(1, 2, 3), getInsideRect(grid, new Rect(-300, -100, 10, 10)));
+
+        Assertions.assertTrue(grid.remove(c));
+        Assertions.assertFalse(grid.remove(c));
+        Assertions.assertEquals(Set.of(1, 2), getInsideRect(grid, new Rect(-300, -100, 10, 10)));
+        Assertions.assertEquals(2, grid.getCount());
+    }
+
+    private static Set<Integer> getInsideRect(SpatialGrid<TestObject> grid, Rect rect) {
+        final Set<Integer> ids = new HashSet<>();
+        grid.forEachInsideRect(rect, (object) -> ids.add(object.getId()));
+        return ids;
+    }
+
+    private static final class TestObject extends FieldObjectImpl {
+        private TestObject(int id, int x, int y) {
+            setId(id);
+            setX(x);
+            setY(y);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package kinoko.world.field.life;
+
+import kinoko.server.packet.NioBufferInPacket;
+import kinoko.server.packet.OutPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public final class MovePathTest {
+    @Test
+    public void testRawRelay() {
+        final MoveElem normal = new MoveElem((byte) 0);
+        normal.setX((short) 100);
+        normal.setY((short) -20);
+        normal.setFh((short) 7);
+        normal.setMoveAction((byte) 2);
+        normal.setElapse((short) 300);
+        final MoveElem stat = new MoveElem((byte) 9);
+        stat.setStat((byte) 1);
+        final MoveElem jump = new MoveElem((byte) 1);
+        jump.setVx((short) 50);
+        jump.setVy((short) -400);
+        jump.setMoveAction((byte) 6);
+        jump.setElapse((short) 120);
+        final MovePath original = new MovePath((short) 10, (short) -20, (short) 0, (short) 0, List.of(normal, stat, jump));
+        final OutPacket outPacket = OutPacket.of(new byte[0]);
+        original.encode(outPacket);
+        final byte[] data = outPacket.getData();
+
+        final MovePath decoded = MovePath.decode(new NioBufferInPacket(data));
+        final OutPacket relayed = OutPacket.of(new byte[0]);
+        decoded.encode(relayed);
+        Assertions.assertArrayEquals(data, relayed.getData());
+        Assertions.assertEquals(3, decoded.getElems().size());
+        Assertions.assertEquals(420, decoded.getDuration());
+
+        // Jump keeps the start position of the path, foothold from the last normal element
+        final TestLife life = new TestLife();
+        decoded.applyTo(life);
+        Assertions.assertEquals(10, life.getX());
+        Assertions.assertEquals(-20, life.getY());
+        Assertions.assertEquals(7, life.getFoothold());
+        Assertions.assertEquals(6, life.getMoveAction());
+    }
+
+    private static final class TestLife extends Life {
+    }
+}